@@ -0,0 +1,96 @@
+package com.alunometa;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The application shared by the benchmarks of a fork, started against an embedded PostgreSQL database.
+ * <p>
+ * The database is filled with {@code alunos} alunos having {@code metasPerAluno} metas each, their values only
+ * depending on the row numbers so that runs can be compared. Both sizes can be changed with the JMH {@code -p} option.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+
+    @Param("10000")
+    public int alunos;
+
+    @Param("5")
+    public int metasPerAluno;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(AlunometaApp.class).profiles("testdev").properties(properties()).run();
+        // The pool does not auto-commit
+        new TransactionTemplate(getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+            insertDataset(getBean(JdbcTemplate.class))
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    /**
+     * @return the properties of the application, which the states of other benchmarks can extend.
+     */
+    protected Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.hikari.maximum-pool-size", "10");
+        properties.put("spring.jpa.properties.hibernate.cache.use_second_level_cache", "true");
+        properties.put("server.port", "0");
+        properties.put("logging.level.io.zonky", "WARN");
+        return properties;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * @return the ids of the metas of the dataset.
+     */
+    public List<Long> metaIds() {
+        return getBean(JdbcTemplate.class).queryForList("select id from meta order by id", Long.class);
+    }
+
+    private void insertDataset(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update(
+            "insert into aluno (id, nome, email, data_nascimento, telefone) " +
+            "select nextval('sequence_generator'), 'Aluno ' || i, 'aluno' || i || '@example.com', date '2000-01-01' + i % 3650, " +
+            "'(11) 9' || lpad(i::text, 8, '0') from generate_series(1, ?) i",
+            alunos
+        );
+        jdbcTemplate.update(
+            "insert into meta (id, valor, area, descricao, aluno_id) " +
+            "select nextval('sequence_generator'), (a.id + m * 131) % 1001, " +
+            "(array['LINGUAGENS', 'HUMANAS', 'NATUREZA', 'MATEMATICA'])[1 + m % 4], 'Meta ' || m || ' do aluno ' || a.id, a.id " +
+            "from aluno a cross join generate_series(1, ?) m",
+            metasPerAluno
+        );
+        jdbcTemplate.execute("analyze");
+    }
+}
@@ -0,0 +1,52 @@
+package com.alunometa.domain;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.repository.AlunoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of the serialisation of an {@link Aluno} with its metas by the application {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlunoJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Aluno aluno;
+
+    @Setup
+    public void setup(BenchmarkState state) {
+        objectMapper = state.getBean(ObjectMapper.class);
+        AlunoRepository alunoRepository = state.getBean(AlunoRepository.class);
+        aluno = new TransactionTemplate(state.getBean(PlatformTransactionManager.class)).execute(status -> {
+            List<Aluno> alunos = alunoRepository.findAll(PageRequest.of(0, 1)).getContent();
+            return alunoRepository.fetchMetas(alunos).get(0);
+        });
+    }
+
+    @Benchmark
+    public byte[] writeAlunoWithMetas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(aluno);
+    }
+}
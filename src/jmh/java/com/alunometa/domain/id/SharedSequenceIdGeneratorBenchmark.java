@@ -0,0 +1,94 @@
+package com.alunometa.domain.id;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import jakarta.persistence.EntityManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of the persisting of {@link Meta} entities through Hibernate, depending on the id allocation of
+ * {@link SharedSequenceIdGenerator}.
+ * <p>
+ * Each trial starts the application with the {@code application.id-generator} settings of its parameters, Liquibase
+ * aligning the increment of the sequence on them. Each invocation persists {@value #METAS} metas with the
+ * {@link EntityManager} and flushes them in the JDBC batches of {@code hibernate.jdbc.batch_size}, in a transaction
+ * which is rolled back. The score is the time per meta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedSequenceIdGeneratorBenchmark {
+
+    private static final int METAS = 1000;
+
+    /**
+     * The application, started with the id allocation of the trial.
+     */
+    @State(Scope.Benchmark)
+    public static class IdGeneratorState extends BenchmarkState {
+
+        @Param({ "pooled", "pooled-lo" })
+        public String optimizer;
+
+        @Param({ "1", "50", "500" })
+        public int incrementSize;
+
+        @Override
+        protected Map<String, Object> properties() {
+            Map<String, Object> properties = super.properties();
+            properties.put("application.id-generator.optimizer", optimizer);
+            properties.put("application.id-generator.increment-size", String.valueOf(incrementSize));
+            return properties;
+        }
+    }
+
+    private TransactionTemplate transactionTemplate;
+
+    private EntityManager entityManager;
+
+    private Long alunoId;
+
+    @Setup
+    public void setup(IdGeneratorState state) {
+        transactionTemplate = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        entityManager = state.getBean(EntityManager.class);
+        alunoId = state.getBean(JdbcTemplate.class).queryForObject("select min(id) from aluno", Long.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(METAS)
+    public Long persistMetas() {
+        return transactionTemplate.execute(status -> {
+            Aluno aluno = entityManager.getReference(Aluno.class, alunoId);
+            Meta meta = null;
+            for (int i = 0; i < METAS; i++) {
+                meta = new Meta().valor(i % 1001).area(AreaDoEnem.MATEMATICA).descricao("Meta " + i).aluno(aluno);
+                entityManager.persist(meta);
+            }
+            entityManager.flush();
+            status.setRollbackOnly();
+            return meta.getId();
+        });
+    }
+}
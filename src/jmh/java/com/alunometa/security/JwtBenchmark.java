@@ -0,0 +1,106 @@
+package com.alunometa.security;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.web.rest.AuthenticateController;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Benchmark of the creation of a JWT by {@link AuthenticateController} and of its decoding by the {@link JwtDecoder}
+ * of {@link com.alunometa.config.SecurityJwtConfiguration}, which every authenticated request goes through.
+ * <p>
+ * The rejection of invalid tokens is measured with concurrent threads, as under a token-stuffing attack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private AuthenticateController authenticateController;
+
+    private JwtDecoder jwtDecoder;
+
+    private Authentication authentication;
+
+    private String token;
+
+    private String malformedToken;
+
+    private String expiredToken;
+
+    private String invalidSignatureToken;
+
+    @Setup
+    public void setup(BenchmarkState state) {
+        authenticateController = state.getBean(AuthenticateController.class);
+        jwtDecoder = state.getBean(JwtDecoder.class);
+        authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        token = authenticateController.createToken(authentication, false);
+        malformedToken = token.substring(1);
+        String[] parts = token.split("\\.");
+        // The claims of a token which expired at the epoch
+        expiredToken = parts[0] + ".eyJzdWIiOiJ1c2VyIiwiZXhwIjowfQ." + parts[2];
+        invalidSignatureToken = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+    }
+
+    @Benchmark
+    public String createToken() {
+        return authenticateController.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JwtException rejectMalformed() {
+        return reject(malformedToken);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JwtException rejectExpired() {
+        return reject(expiredToken);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JwtException rejectInvalidSignature() {
+        return reject(invalidSignatureToken);
+    }
+
+    private JwtException reject(String invalidToken) {
+        try {
+            jwtDecoder.decode(invalidToken);
+            throw new IllegalStateException("The token was not rejected");
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.alunometa.service;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.domain.Aluno;
+import com.alunometa.service.criteria.AlunoCriteria;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Benchmark of {@link AlunoQueryService}, with the filters of the alunos list page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlunoQueryServiceBenchmark {
+
+    private AlunoQueryService alunoQueryService;
+
+    private AlunoCriteria criteria;
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Setup
+    public void setup(BenchmarkState state) {
+        alunoQueryService = state.getBean(AlunoQueryService.class);
+        criteria = new AlunoCriteria();
+        criteria.nome().setContains("aluno 1");
+        criteria.dataNascimento().setGreaterThanOrEqual(LocalDate.of(2004, 1, 1));
+    }
+
+    @Benchmark
+    public Specification<Aluno> createSpecification() {
+        return alunoQueryService.createSpecification(criteria);
+    }
+
+    @Benchmark
+    public Page<Aluno> findByCriteria() {
+        return alunoQueryService.findByCriteria(criteria, pageable);
+    }
+}
@@ -0,0 +1,85 @@
+package com.alunometa.service;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.config.Constants;
+import com.alunometa.domain.User;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the rendering of the account creation email by {@link MailTemplateRenderer}, compared to the processing
+ * of its template for each user, by concurrent threads as during a mass account creation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MailTemplateRendererBenchmark {
+
+    private static final String TEMPLATE_NAME = "mail/creationEmail";
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private SpringTemplateEngine templateEngine;
+
+    private String baseUrl;
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup
+    public void setup(BenchmarkState state) {
+        mailTemplateRenderer = state.getBean(MailTemplateRenderer.class);
+        templateEngine = state.getBean(SpringTemplateEngine.class);
+        baseUrl = state.getBean(JHipsterProperties.class).getMail().getBaseUrl();
+    }
+
+    /**
+     * The user of a thread.
+     */
+    @State(Scope.Thread)
+    public static class UserState {
+
+        private User user;
+
+        @Setup
+        public void setup(MailTemplateRendererBenchmark benchmark) {
+            int thread = benchmark.threads.incrementAndGet();
+            user = new User();
+            user.setLogin("user" + thread);
+            user.setEmail("user" + thread + "@example.com");
+            user.setLangKey(Constants.DEFAULT_LANGUAGE);
+            user.setResetKey("resetkey" + thread);
+        }
+    }
+
+    @Benchmark
+    public String render(UserState state) {
+        return mailTemplateRenderer.render(TEMPLATE_NAME, state.user);
+    }
+
+    @Benchmark
+    public String processTemplate(UserState state) {
+        Context context = new Context(Locale.forLanguageTag(state.user.getLangKey()));
+        context.setVariable("user", state.user);
+        context.setVariable("baseUrl", baseUrl);
+        return templateEngine.process(TEMPLATE_NAME, context);
+    }
+}
@@ -0,0 +1,49 @@
+package com.alunometa.service;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.domain.Meta;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link MetaService#partialUpdate(Meta)}, each call committing a new valor of the next meta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetaServiceBenchmark {
+
+    private MetaService metaService;
+
+    private List<Long> metaIds;
+
+    private int calls;
+
+    @Setup
+    public void setup(BenchmarkState state) {
+        metaService = state.getBean(MetaService.class);
+        metaIds = state.metaIds();
+    }
+
+    @Benchmark
+    public Optional<Meta> partialUpdate() {
+        int call = calls++;
+        Meta meta = new Meta().valor(call % 1001);
+        meta.setId(metaIds.get(call % metaIds.size()));
+        return metaService.partialUpdate(meta);
+    }
+}
@@ -0,0 +1,93 @@
+package com.alunometa.web.rest;
+
+import com.alunometa.BenchmarkState;
+import com.alunometa.security.AuthoritiesConstants;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Load test of the REST API, comparing the requests run by the worker pool of Undertow with the requests run on virtual
+ * threads, with {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Concurrent clients list the alunos over HTTP, a request which mostly waits on JDBC. Both the throughput and the
+ * latency percentiles, p99 included, are reported. The virtual threads need a Java 21 runtime: on an older one, run
+ * the benchmark with {@code -p virtualThreads=false}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ApiLoadBenchmark {
+
+    /**
+     * The application, started with or without virtual threads.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadState extends BenchmarkState {
+
+        @Param({ "false", "true" })
+        public boolean virtualThreads;
+
+        @Override
+        protected Map<String, Object> properties() {
+            if (virtualThreads && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21 or later");
+            }
+            Map<String, Object> properties = super.properties();
+            properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+            return properties;
+        }
+    }
+
+    private HttpClient client;
+
+    private HttpRequest listAlunos;
+
+    @Setup
+    public void setup(LoadState state) {
+        String token = state
+            .getBean(AuthenticateController.class)
+            .createToken(
+                new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))),
+                false
+            );
+        int port = state.getBean(Environment.class).getRequiredProperty("local.server.port", Integer.class);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/alunos?nome.contains=aluno%201&page=0&size=20&sort=id");
+        listAlunos = HttpRequest.newBuilder(uri).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build();
+    }
+
+    @Benchmark
+    public int listAlunos() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(listAlunos, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -1,30 +1,59 @@
 package com.alunometa.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
-import org.aspectj.lang.JoinPoint;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * Aspect for tracing the execution of service and repository Spring components.
+ * <p>
+ * It is only registered when {@code application.tracing.enabled} is set, as in the "dev" profile, so that the
+ * components are not proxied otherwise. Each call is timed by the {@code method.duration} meter, tagged with the class,
+ * the method, the simple names of its parameter types, so that the overloads of a method are timed apart, and the
+ * outcome. At debug level, the entry and exit of a sample of the calls are logged with their
+ * arguments and result, the ratio of the calls being set by {@code application.tracing.argument-sample-rate}. The
+ * logger and the timers of a method are looked up once.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    public static final String DURATION_METER_NAME = "method.duration";
+    public static final String CLASS_DIMENSION = "class";
+    public static final String METHOD_DIMENSION = "method";
+    public static final String PARAMETERS_DIMENSION = "parameters";
+    public static final String OUTCOME_DIMENSION = "outcome";
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
+    private final boolean development;
+
+    private final MeterRegistry meterRegistry;
+
+    private final double argumentSampleRate;
+
+    private final Map<Class<?>, Map<Method, MethodTrace>> traces = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, MeterRegistry meterRegistry, double argumentSampleRate) {
+        this.development = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        this.meterRegistry = meterRegistry;
+        this.argumentSampleRate = argumentSampleRate;
     }
 
     /**
@@ -48,62 +77,94 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Advice that times the methods, and logs a sample of their calls and their exceptions.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTrace trace = trace(joinPoint);
+        Logger log = trace.logger();
+        boolean sampled = log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < argumentSampleRate;
+        if (sampled) {
+            log.debug("Enter: {}() with argument[s] = {}", trace.name(), Arrays.toString(joinPoint.getArgs()));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long duration = System.nanoTime() - start;
+            trace.success().record(duration, TimeUnit.NANOSECONDS);
+            if (sampled) {
+                log.debug("Exit: {}() in {} µs with result = {}", trace.name(), TimeUnit.NANOSECONDS.toMicros(duration), result);
+            }
+            return result;
+        } catch (Throwable e) {
+            trace.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e instanceof IllegalArgumentException) {
+                log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), trace.name());
+            }
+            logThrowing(log, trace.name(), e);
+            throw e;
+        }
     }
 
-    /**
-     * Advice that logs methods throwing exceptions.
-     *
-     * @param joinPoint join point for advice.
-     * @param e exception.
-     */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint).error(
+    private void logThrowing(Logger log, String name, Throwable e) {
+        if (development) {
+            log.error(
                 "Exception in {}() with cause = '{}' and exception = '{}'",
-                joinPoint.getSignature().getName(),
+                name,
                 e.getCause() != null ? e.getCause() : "NULL",
                 e.getMessage(),
                 e
             );
         } else {
-            logger(joinPoint).error(
-                "Exception in {}() with cause = {}",
-                joinPoint.getSignature().getName(),
-                e.getCause() != null ? String.valueOf(e.getCause()) : "NULL"
-            );
+            log.error("Exception in {}() with cause = {}", name, e.getCause() != null ? String.valueOf(e.getCause()) : "NULL");
         }
     }
 
+    private MethodTrace trace(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return traces
+            .computeIfAbsent(target.getClass(), targetClass -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method, key -> createTrace(tracedClass(target), key));
+    }
+
     /**
-     * Advice that logs when a method is entered and exited.
-     *
-     * @param joinPoint join point for advice.
-     * @return result.
-     * @throws Throwable throws {@link IllegalArgumentException}.
+     * Returns the class a call is reported under: the repository interface for a Spring Data repository, whose methods
+     * are mostly declared by the generic interfaces.
      */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
-        }
-        try {
-            Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+    private static Class<?> tracedClass(Object target) {
+        if (target instanceof Advised) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+            if (interfaces.length > 0) {
+                return interfaces[0];
             }
-            return result;
-        } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
-            throw e;
         }
+        return ClassUtils.getUserClass(target);
     }
+
+    private MethodTrace createTrace(Class<?> tracedClass, Method method) {
+        return new MethodTrace(
+            LoggerFactory.getLogger(tracedClass),
+            method.getName(),
+            timer(tracedClass, method, "success"),
+            timer(tracedClass, method, "error")
+        );
+    }
+
+    private Timer timer(Class<?> tracedClass, Method method, String outcome) {
+        return Timer.builder(DURATION_METER_NAME)
+            .description("Duration of the calls to the services, repositories and REST endpoints")
+            .tag(CLASS_DIMENSION, tracedClass.getSimpleName())
+            .tag(METHOD_DIMENSION, method.getName())
+            .tag(PARAMETERS_DIMENSION, Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",")))
+            .tag(OUTCOME_DIMENSION, outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private record MethodTrace(Logger logger, String name, Timer success, Timer error) {}
 }
@@ -1,5 +1,9 @@
 package com.alunometa.config;
 
+import com.alunometa.domain.id.SharedSequenceIdGenerator;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +17,60 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final IdGenerator idGenerator = new IdGenerator();
+
+    private final Datasource datasource = new Datasource();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final Mail mail = new Mail();
+
+    private final Tracing tracing = new Tracing();
+
+    private final Instrumentation instrumentation = new Instrumentation();
+
+    private final SlowQueries slowQueries = new SlowQueries();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public SlowQueries getSlowQueries() {
+        return slowQueries;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +85,444 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        /**
+         * Per-region overrides of {@code jhipster.cache.ehcache}, keyed by cache name
+         * (for example {@code '[com.alunometa.domain.Aluno]'}).
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Directory of the disk tier, required as soon as one region has a {@code disk-size-mb}.
+         */
+        private String diskPath;
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Long timeToLiveSeconds;
+
+            private Long offHeapSizeMb = 0L;
+
+            private Long diskSizeMb = 0L;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getOffHeapSizeMb() {
+                return offHeapSizeMb;
+            }
+
+            public void setOffHeapSizeMb(Long offHeapSizeMb) {
+                this.offHeapSizeMb = offHeapSizeMb;
+            }
+
+            public Long getDiskSizeMb() {
+                return diskSizeMb;
+            }
+
+            public void setDiskSizeMb(Long diskSizeMb) {
+                this.diskSizeMb = diskSizeMb;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * Transport broadcasting the cache evictions to the other instances: {@code postgres} for the
+             * LISTEN/NOTIFY channel of the database, or {@code none} for a single instance.
+             */
+            private String transport = "none";
+
+            /**
+             * Name of the PostgreSQL channel, shared by all the instances of a same database.
+             */
+            private String channel = "alunometa_cache_invalidation";
+
+            /**
+             * How long the evictions are collected before being broadcast together.
+             */
+            private Duration batchWindow = Duration.ofMillis(50);
+
+            /**
+             * Maximum number of evictions broadcast in one message.
+             */
+            private int maxBatchSize = 200;
+
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+
+            public Duration getBatchWindow() {
+                return batchWindow;
+            }
+
+            public void setBatchWindow(Duration batchWindow) {
+                this.batchWindow = batchWindow;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+        }
+    }
+
+    public static class IdGenerator {
+
+        /**
+         * Number of identifiers allocated per call to {@code sequence_generator}, which Liquibase also sets as the
+         * increment of the sequence: all the instances sharing the database must use the same value.
+         */
+        private Integer incrementSize = SharedSequenceIdGenerator.DEFAULT_INCREMENT_SIZE;
+
+        /**
+         * Allocation strategy, {@code pooled} or {@code pooled-lo}. Switching from {@code pooled-lo} back to
+         * {@code pooled} reuses identifiers, unless the sequence is first advanced by one increment.
+         */
+        private String optimizer = "pooled";
+
+        public Integer getIncrementSize() {
+            return incrementSize;
+        }
+
+        public void setIncrementSize(Integer incrementSize) {
+            this.incrementSize = incrementSize;
+        }
+
+        public String getOptimizer() {
+            return optimizer;
+        }
+
+        public void setOptimizer(String optimizer) {
+            this.optimizer = optimizer;
+        }
+    }
+
+    public static class Datasource {
+
+        /**
+         * How long the read-only transactions of a user are kept on the primary after the user wrote, when
+         * {@code spring.datasource.replica} is set. Zero sends them all to the replica.
+         */
+        private Duration readYourWritesWindow = Duration.ZERO;
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * BCrypt strength (log2 of the number of rounds) of the new password hashes. When not set, the strength is
+         * calibrated at startup as the highest one verifying a password within {@code target-duration}, between
+         * {@code min-strength} and {@code max-strength}. The hashes of a lower strength are upgraded on login.
+         */
+        private Integer strength;
+
+        private Duration targetDuration = Duration.ofMillis(100);
+
+        private int minStrength = 10;
+
+        private int maxStrength = 16;
+
+        /**
+         * Number of threads verifying the passwords on login, which bounds the CPU taken by the logins.
+         */
+        private int verificationThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of logins waiting for a verification thread, beyond which the logins are rejected with a 503.
+         */
+        private int verificationQueueCapacity = 100;
+
+        public Integer getStrength() {
+            return strength;
+        }
+
+        public void setStrength(Integer strength) {
+            this.strength = strength;
+        }
+
+        public Duration getTargetDuration() {
+            return targetDuration;
+        }
+
+        public void setTargetDuration(Duration targetDuration) {
+            this.targetDuration = targetDuration;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+
+        public int getVerificationThreads() {
+            return verificationThreads;
+        }
+
+        public void setVerificationThreads(int verificationThreads) {
+            this.verificationThreads = verificationThreads;
+        }
+
+        public int getVerificationQueueCapacity() {
+            return verificationQueueCapacity;
+        }
+
+        public void setVerificationQueueCapacity(int verificationQueueCapacity) {
+            this.verificationQueueCapacity = verificationQueueCapacity;
+        }
+    }
+
+    public static class Mail {
+
+        /**
+         * Maximum number of queued mails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Maximum number of queued mails sent per second by this instance, which is also the number sent at once after
+         * an idle period.
+         */
+        private int ratePerSecond = 10;
+
+        /**
+         * Number of attempts to send a mail, after which it is dropped.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry of a mail, doubled on each following attempt up to {@code max-backoff}.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts to send a mail.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Whether the queue is polled by this instance. When disabled, the queued mails are only sent by the other
+         * instances sharing the database, or by explicit calls to {@code MailDeliveryService}.
+         */
+        private boolean deliveryEnabled = true;
+
+        /**
+         * Delay between the end of a delivery of the queue and the start of the next one. Longer than one second, it
+         * lowers the rate below {@code rate-per-second}, as at most one second of mails is sent at once.
+         */
+        private Duration deliveryInterval = Duration.ofSeconds(1);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(int ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public boolean isDeliveryEnabled() {
+            return deliveryEnabled;
+        }
+
+        public void setDeliveryEnabled(boolean deliveryEnabled) {
+            this.deliveryEnabled = deliveryEnabled;
+        }
+
+        public Duration getDeliveryInterval() {
+            return deliveryInterval;
+        }
+
+        public void setDeliveryInterval(Duration deliveryInterval) {
+            this.deliveryInterval = deliveryInterval;
+        }
+    }
+
+    public static class Tracing {
+
+        /**
+         * Whether the services, repositories and REST endpoints are timed and logged by the
+         * {@link com.alunometa.aop.logging.LoggingAspect}. When disabled, they are not proxied for it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Ratio of the calls logged with their arguments and result, at debug level.
+         */
+        private double argumentSampleRate = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getArgumentSampleRate() {
+            return argumentSampleRate;
+        }
+
+        public void setArgumentSampleRate(double argumentSampleRate) {
+            this.argumentSampleRate = argumentSampleRate;
+        }
+    }
+
+    public static class Instrumentation {
+
+        /**
+         * Whether the responses of the entity resources carry a {@code Server-Timing} header with the JDBC statements,
+         * the second-level cache lookups and the entity loads of the request.
+         */
+        private boolean serverTiming = false;
+
+        public boolean isServerTiming() {
+            return serverTiming;
+        }
+
+        public void setServerTiming(boolean serverTiming) {
+            this.serverTiming = serverTiming;
+        }
+    }
+
+    public static class SlowQueries {
+
+        /**
+         * Execution time from which a SQL statement is logged.
+         */
+        private Duration threshold = Duration.ofMillis(200);
+
+        /**
+         * Maximum number of SQL fingerprints whose statistics are kept.
+         */
+        private int maxFingerprints = 500;
+
+        /**
+         * Number of fingerprints listed by {@code /management/slowqueries} by default.
+         */
+        private int top = 20;
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getMaxFingerprints() {
+            return maxFingerprints;
+        }
+
+        public void setMaxFingerprints(int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
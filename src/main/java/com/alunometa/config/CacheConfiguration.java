@@ -1,9 +1,20 @@
 package com.alunometa.config;
 
+import com.alunometa.management.CacheTierMetrics;
+import java.io.File;
 import java.time.Duration;
+import java.util.Map;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.ehcache.impl.serialization.CompactJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -22,9 +33,15 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+    private final String diskPath;
+    private StatisticsService statisticsService;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
+        this.diskPath = applicationProperties.getCache().getDiskPath();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
             CacheConfigurationBuilder.newCacheConfigurationBuilder(
@@ -37,6 +54,32 @@ public class CacheConfiguration {
         );
     }
 
+    /**
+     * Creates the JCache manager instead of Spring Boot, so that the Ehcache manager gets the persistence service the
+     * disk tier needs.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+        DefaultConfiguration configuration = diskPath != null
+            ? new DefaultConfiguration(classLoader, new CacheManagerPersistenceConfiguration(new File(diskPath)))
+            : new DefaultConfiguration(classLoader);
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration);
+        // Started before the caches are created, so that it follows all of them
+        statisticsService = CacheTierMetrics.startStatisticsService(cacheManager);
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    /**
+     * The statistics of the tiers of the caches, stopped with the cache manager.
+     */
+    @Bean(destroyMethod = "")
+    public StatisticsService cacheStatisticsService(javax.cache.CacheManager cacheManager) {
+        return statisticsService;
+    }
+
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
         return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
@@ -50,6 +93,9 @@ public class CacheConfiguration {
             createCache(cm, com.alunometa.domain.User.class.getName());
             createCache(cm, com.alunometa.domain.Authority.class.getName());
             createCache(cm, com.alunometa.domain.User.class.getName() + ".authorities");
+            createCache(cm, com.alunometa.domain.Aluno.class.getName());
+            createCache(cm, com.alunometa.domain.Aluno.class.getName() + ".metas");
+            createCache(cm, com.alunometa.domain.Meta.class.getName());
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -59,8 +105,51 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+    }
+
+    /**
+     * Returns the configuration of the given cache: the shared {@code jhipster.cache.ehcache} one, unless the region is
+     * tuned in {@code application.cache.regions}, in which case entries overflow from the heap to the optional off-heap
+     * and disk tiers.
+     * <p>
+     * Those tiers store serialized entries. Hibernate regions hold disassembled entity state and the user caches hold
+     * {@link com.alunometa.domain.User} graphs, made of a handful of classes repeated in every entry, so the
+     * {@link CompactJavaSerializer} writes each class descriptor once per cache instead of once per entry.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = regions.get(cacheName);
+        if (region == null) {
+            return jcacheConfiguration;
+        }
+        long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(maxEntries);
+        boolean offHeap = region.getOffHeapSizeMb() != null && region.getOffHeapSizeMb() > 0;
+        if (offHeap) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSizeMb(), MemoryUnit.MB);
+        }
+        boolean disk = region.getDiskSizeMb() != null && region.getDiskSizeMb() > 0;
+        if (disk) {
+            if (diskPath == null) {
+                throw new IllegalStateException("application.cache.disk-path must be set to use a disk tier for cache " + cacheName);
+            }
+            resourcePools = resourcePools.disk(region.getDiskSizeMb(), MemoryUnit.MB, false);
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+            Object.class,
+            Object.class,
+            resourcePools
+        ).withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)));
+        if (offHeap || disk) {
+            ClassLoader classLoader = getClass().getClassLoader();
+            builder = builder
+                .withKeySerializer(new CompactJavaSerializer<>(classLoader))
+                .withValueSerializer(new CompactJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
     }
 
     @Autowired(required = false)
@@ -1,5 +1,11 @@
 package com.alunometa.config;
 
+import com.alunometa.domain.id.SharedSequenceIdGenerator;
+import com.alunometa.management.QueryStatisticsSessionListener;
+import com.alunometa.management.SlowQueryRecorder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -9,4 +15,22 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableJpaRepositories({ "com.alunometa.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorHibernatePropertiesCustomizer(ApplicationProperties applicationProperties) {
+        ApplicationProperties.IdGenerator idGenerator = applicationProperties.getIdGenerator();
+        return hibernateProperties -> {
+            hibernateProperties.put(SharedSequenceIdGenerator.INCREMENT_SIZE_SETTING, idGenerator.getIncrementSize());
+            hibernateProperties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, idGenerator.getOptimizer());
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsHibernatePropertiesCustomizer(SlowQueryRecorder slowQueryRecorder) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryStatisticsSessionListener.class.getName());
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, slowQueryRecorder);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.alunometa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends the read-only transactions to a replica when {@code spring.datasource.replica.jdbc-url} is set.
+ * <p>
+ * The primary pool is configured by {@code spring.datasource} as usual, the replica pool by
+ * {@code spring.datasource.replica}, which takes the Hikari settings. Each pool is a bean of its own, so it gets its
+ * own {@code hikaricp.*} metrics, tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicaDataSource,
+                applicationProperties.getDatasource().getReadYourWritesWindow()
+            )
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package com.alunometa.config;
+
+import com.alunometa.security.SecurityUtils;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the connections of read-only transactions to the replica, and all the others to the primary.
+ * <p>
+ * The transaction is only known once it has begun, so this data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which fetches the connection on the first statement.
+ * <p>
+ * With a read-your-writes window, the read-only transactions of a user who committed a write within the window still go
+ * to the primary, so that the user does not read data older than its own write while the replica catches up. The
+ * window is tracked per instance.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private static final int MAX_TRACKED_WRITERS = 10_000;
+
+    private final long readYourWritesWindowNanos;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        Optional<String> login = readYourWritesWindowNanos > 0 ? SecurityUtils.getCurrentUserLogin() : Optional.empty();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            login.ifPresent(this::trackWrite);
+            return Target.PRIMARY;
+        }
+        return login.filter(this::hasRecentWrite).isPresent() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private void trackWrite(String login) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(login);
+                    }
+                }
+            );
+        } else {
+            recordWrite(login);
+        }
+    }
+
+    private void recordWrite(String login) {
+        long now = System.nanoTime();
+        if (lastWrites.size() >= MAX_TRACKED_WRITERS) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowNanos);
+        }
+        lastWrites.put(login, now);
+    }
+
+    private boolean hasRecentWrite(String login) {
+        Long lastWrite = lastWrites.get(login);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < readYourWritesWindowNanos) {
+            return true;
+        }
+        lastWrites.remove(login, lastWrite);
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.alunometa.config;
+
+import com.alunometa.management.RequestQueryMetrics;
+import com.alunometa.web.filter.RequestQueryMetricsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Attributes the JDBC statements, the second-level cache lookups and the entity loads to the requests to the entity
+ * resources, see {@link RequestQueryMetrics}.
+ */
+@Configuration
+public class RequestQueryMetricsConfiguration implements WebMvcConfigurer {
+
+    private final RequestQueryMetrics requestQueryMetrics;
+
+    public RequestQueryMetricsConfiguration(RequestQueryMetrics requestQueryMetrics) {
+        this.requestQueryMetrics = requestQueryMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestQueryMetricsInterceptor(requestQueryMetrics)).addPathPatterns("/api/**");
+    }
+}
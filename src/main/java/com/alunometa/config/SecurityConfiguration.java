@@ -4,9 +4,12 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 import com.alunometa.security.*;
 import com.alunometa.web.filter.SpaWebFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer.FrameOptionsConfig;
@@ -26,15 +29,45 @@ import tech.jhipster.config.JHipsterProperties;
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SecurityConfiguration.class);
+
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        ApplicationProperties.PasswordHashing passwordHashing = applicationProperties.getPasswordHashing();
+        Integer strength = passwordHashing.getStrength();
+        if (strength == null) {
+            strength = BCryptStrengthCalibrator.calibrate(
+                passwordHashing.getTargetDuration(),
+                passwordHashing.getMinStrength(),
+                passwordHashing.getMaxStrength()
+            );
+            LOG.info("Calibrated the BCrypt strength to {} for a target of {}", strength, passwordHashing.getTargetDuration());
+        }
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * The executor verifying the passwords on login, off the servlet threads. Its meters are bound by Spring Boot, as
+     * {@code executor.*} tagged with the bean name, the depth of its queue being {@code executor.queued}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordVerificationExecutor() {
+        ApplicationProperties.PasswordHashing passwordHashing = applicationProperties.getPasswordHashing();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashing.getVerificationThreads());
+        executor.setMaxPoolSize(passwordHashing.getVerificationThreads());
+        executor.setQueueCapacity(passwordHashing.getVerificationQueueCapacity());
+        executor.setThreadNamePrefix("password-verification-");
+        return executor;
     }
 
     @Bean
@@ -3,6 +3,8 @@ package com.alunometa.config;
 import static com.alunometa.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.alunometa.management.SecurityMetersService;
+import com.alunometa.security.jwt.CachingJwtDecoder;
+import com.alunometa.security.jwt.PreValidatingJwtDecoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import javax.crypto.SecretKey;
@@ -22,32 +24,19 @@ public class SecurityJwtConfiguration {
 
     private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
+    private static final int DECODED_TOKENS_CACHE_SIZE = 10_000;
+
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
     public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
-            try {
-                return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
-                throw e;
-            }
-        };
+        return new CachingJwtDecoder(
+            new PreValidatingJwtDecoder(jwtDecoder, JWT_ALGORITHM, metersService),
+            metersService,
+            DECODED_TOKENS_CACHE_SIZE
+        );
     }
 
     @Bean
@@ -8,12 +8,15 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -53,6 +56,7 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
     public void customize(WebServerFactory server) {
         // When running in an IDE or with ./mvnw spring-boot:run, set location of the static web assets.
         setLocationForStaticAssets(server);
+        setVirtualThreadsForUndertow(server);
     }
 
     private void setLocationForStaticAssets(WebServerFactory server) {
@@ -66,6 +70,17 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         }
     }
 
+    /**
+     * Run the requests on virtual threads with {@code spring.threads.virtual.enabled}, on Java 21 or later, which
+     * Spring Boot only does for Tomcat and Jetty. Undertow keeps its I/O threads, and its worker pool is left unused.
+     */
+    private void setVirtualThreadsForUndertow(WebServerFactory server) {
+        if (Threading.VIRTUAL.isActive(env) && server instanceof UndertowServletWebServerFactory undertow) {
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("undertow-");
+            undertow.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor).setAsyncExecutor(executor));
+        }
+    }
+
     /**
      * Resolve path prefix to static resources.
      */
@@ -1,5 +1,6 @@
 package com.alunometa.domain;
 
+import com.alunometa.domain.id.SharedSequenceId;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -7,6 +8,7 @@ import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -22,11 +24,14 @@ public class Aluno implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SharedSequenceId
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @Size(min = 3, max = 100)
     @Column(name = "nome", length = 100, nullable = false)
@@ -44,6 +49,7 @@ public class Aluno implements Serializable {
     private String telefone;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "aluno")
+    @BatchSize(size = 25)
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "aluno" }, allowSetters = true)
     private Set<Meta> metas = new HashSet<>();
@@ -63,6 +69,19 @@ public class Aluno implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Aluno version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getNome() {
         return this.nome;
     }
@@ -0,0 +1,180 @@
+package com.alunometa.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The metas of an {@link Aluno} summarised in a single row, with a copy of the columns of the aluno: the highest valor
+ * of each {@link com.alunometa.domain.enumeration.AreaDoEnem}, {@code null} if the aluno has no meta in the area, and
+ * the number of metas.
+ * <p>
+ * The rows are written by SQL statements of {@code AlunoSummaryRepository}, in the
+ * transactions changing the aluno or its metas, never through this entity.
+ */
+@Entity
+@Table(name = "aluno_summary")
+@Immutable
+public class AlunoSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "aluno_id")
+    private Long alunoId;
+
+    @Column(name = "nome", length = 100, nullable = false)
+    private String nome;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "data_nascimento", nullable = false)
+    private LocalDate dataNascimento;
+
+    @Column(name = "telefone")
+    private String telefone;
+
+    @Column(name = "linguagens")
+    private Integer linguagens;
+
+    @Column(name = "humanas")
+    private Integer humanas;
+
+    @Column(name = "natureza")
+    private Integer natureza;
+
+    @Column(name = "matematica")
+    private Integer matematica;
+
+    @Column(name = "meta_count", nullable = false)
+    private long metaCount;
+
+    @Column(name = "last_modified_date", nullable = false)
+    private Instant lastModifiedDate;
+
+    public Long getAlunoId() {
+        return alunoId;
+    }
+
+    public void setAlunoId(Long alunoId) {
+        this.alunoId = alunoId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public void setDataNascimento(LocalDate dataNascimento) {
+        this.dataNascimento = dataNascimento;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+
+    public Integer getLinguagens() {
+        return linguagens;
+    }
+
+    public void setLinguagens(Integer linguagens) {
+        this.linguagens = linguagens;
+    }
+
+    public Integer getHumanas() {
+        return humanas;
+    }
+
+    public void setHumanas(Integer humanas) {
+        this.humanas = humanas;
+    }
+
+    public Integer getNatureza() {
+        return natureza;
+    }
+
+    public void setNatureza(Integer natureza) {
+        this.natureza = natureza;
+    }
+
+    public Integer getMatematica() {
+        return matematica;
+    }
+
+    public void setMatematica(Integer matematica) {
+        this.matematica = matematica;
+    }
+
+    public long getMetaCount() {
+        return metaCount;
+    }
+
+    public void setMetaCount(long metaCount) {
+        this.metaCount = metaCount;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AlunoSummary)) {
+            return false;
+        }
+        return alunoId != null && alunoId.equals(((AlunoSummary) o).alunoId);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AlunoSummary{" +
+            "alunoId=" + alunoId +
+            ", nome='" + nome + "'" +
+            ", email='" + email + "'" +
+            ", dataNascimento='" + dataNascimento + "'" +
+            ", telefone='" + telefone + "'" +
+            ", linguagens=" + linguagens +
+            ", humanas=" + humanas +
+            ", natureza=" + natureza +
+            ", matematica=" + matematica +
+            ", metaCount=" + metaCount +
+            ", lastModifiedDate='" + lastModifiedDate + "'" +
+            "}";
+    }
+}
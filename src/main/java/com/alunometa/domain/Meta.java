@@ -1,6 +1,7 @@
 package com.alunometa.domain;
 
 import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.domain.id.SharedSequenceId;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -20,11 +21,14 @@ public class Meta implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SharedSequenceId
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @Min(value = 0)
     @Max(value = 1000)
@@ -59,6 +63,19 @@ public class Meta implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Meta version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Integer getValor() {
         return this.valor;
     }
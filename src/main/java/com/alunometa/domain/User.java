@@ -1,6 +1,7 @@
 package com.alunometa.domain;
 
 import com.alunometa.config.Constants;
+import com.alunometa.domain.id.SharedSequenceId;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -28,8 +29,7 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SharedSequenceId
     private Long id;
 
     @NotNull
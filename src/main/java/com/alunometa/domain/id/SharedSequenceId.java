@@ -0,0 +1,18 @@
+package com.alunometa.domain.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the identifier from the {@code sequence_generator} sequence shared by all the entities, with the
+ * allocation strategy of {@link SharedSequenceIdGenerator}.
+ */
+@IdGeneratorType(SharedSequenceIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface SharedSequenceId {
+}
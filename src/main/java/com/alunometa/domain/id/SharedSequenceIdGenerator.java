@@ -0,0 +1,36 @@
+package com.alunometa.domain.id;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator of {@link SharedSequenceId} identifiers, which allocates them by blocks instead of fetching
+ * them one at a time.
+ * <p>
+ * The block size is read from the {@value #INCREMENT_SIZE_SETTING} Hibernate setting, and must be the increment of
+ * the database sequence. With a block size above 1, the optimizer is the one of the
+ * {@code hibernate.id.optimizer.pooled.preferred} setting: {@code pooled} or {@code pooled-lo}.
+ */
+public class SharedSequenceIdGenerator extends SequenceStyleGenerator {
+
+    public static final String SEQUENCE_NAME = "sequence_generator";
+
+    public static final String INCREMENT_SIZE_SETTING = "alunometa.id.increment_size";
+
+    public static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int incrementSize = serviceRegistry
+            .requireService(ConfigurationService.class)
+            .getSetting(INCREMENT_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_INCREMENT_SIZE);
+        parameters.put(SEQUENCE_PARAM, SEQUENCE_NAME);
+        parameters.put(INCREMENT_PARAM, String.valueOf(incrementSize));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
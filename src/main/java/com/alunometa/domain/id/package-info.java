@@ -0,0 +1,4 @@
+/**
+ * Identifier generation of the domain objects.
+ */
+package com.alunometa.domain.id;
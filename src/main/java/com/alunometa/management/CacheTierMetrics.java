@@ -0,0 +1,124 @@
+package com.alunometa.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import javax.cache.CacheManager;
+import org.ehcache.Status;
+import org.ehcache.core.InternalCacheManager;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.TierStatistics;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the statistics of each Ehcache tier (on-heap, off-heap, disk) of every JCache cache, which the
+ * cache-level {@code cache.*} meters cannot break down.
+ * <p>
+ * The statistics are read from a {@link StatisticsService} attached to the Ehcache manager behind the JCache manager.
+ * The JCache provider builds that manager itself, so the service cannot be handed to its builder: it is started
+ * against the manager by {@link #startStatisticsService(CacheManager)} instead, as Ehcache starts the services of a
+ * manager, and is then notified of the caches added and removed until the manager is closed.
+ */
+@Component
+public class CacheTierMetrics implements MeterBinder {
+
+    public static final String TIER_GETS_METER_NAME = "cache.tier.gets";
+    public static final String TIER_EVICTIONS_METER_NAME = "cache.tier.evictions";
+    public static final String TIER_SIZE_METER_NAME = "cache.tier.size";
+    public static final String TIER_OCCUPIED_BYTES_METER_NAME = "cache.tier.occupied";
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String TIER_DIMENSION = "tier";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final CacheManager cacheManager;
+
+    // Kept as a field as the meters only hold weak references to the statistics it owns
+    private final StatisticsService statisticsService;
+
+    public CacheTierMetrics(CacheManager cacheManager, StatisticsService statisticsService) {
+        this.cacheManager = cacheManager;
+        this.statisticsService = statisticsService;
+    }
+
+    /**
+     * Start a statistics service for the caches of a JCache manager, before or after they are created.
+     *
+     * @param cacheManager the JCache manager, backed by Ehcache.
+     * @return the started statistics service.
+     */
+    public static StatisticsService startStatisticsService(CacheManager cacheManager) {
+        InternalCacheManager ehcacheManager = (InternalCacheManager) cacheManager.unwrap(org.ehcache.CacheManager.class);
+        CacheManagerProviderService cacheManagerProvider = new CacheManagerProviderService() {
+            @Override
+            public InternalCacheManager getCacheManager() {
+                return ehcacheManager;
+            }
+
+            @Override
+            public void start(ServiceProvider<Service> serviceProvider) {}
+
+            @Override
+            public void stop() {}
+        };
+        DefaultStatisticsService statisticsService = new DefaultStatisticsService();
+        // The only service the statistics depend on
+        statisticsService.start(
+            new ServiceProvider<>() {
+                @Override
+                public <U extends Service> U getService(Class<U> serviceType) {
+                    return serviceType.isInstance(cacheManagerProvider) ? serviceType.cast(cacheManagerProvider) : null;
+                }
+
+                @Override
+                public <U extends Service> Collection<U> getServicesOfType(Class<U> serviceType) {
+                    return serviceType.isInstance(cacheManagerProvider) ? List.of(serviceType.cast(cacheManagerProvider)) : List.of();
+                }
+            }
+        );
+        // The manager is already available: pick up the caches it holds, as when it becomes available
+        statisticsService.stateTransition(Status.UNINITIALIZED, Status.AVAILABLE);
+        return statisticsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Map<String, TierStatistics> tiers = statisticsService.getCacheStatistics(cacheName).getTierStatistics();
+            tiers.forEach((tier, statistics) ->
+                bindTier(registry, Tags.of(CACHE_DIMENSION, cacheName, TIER_DIMENSION, tier), statistics)
+            );
+        }
+    }
+
+    private void bindTier(MeterRegistry registry, Tags tags, TierStatistics statistics) {
+        counter(registry, TIER_GETS_METER_NAME, tags.and(RESULT_DIMENSION, "hit"), statistics, TierStatistics::getHits);
+        counter(registry, TIER_GETS_METER_NAME, tags.and(RESULT_DIMENSION, "miss"), statistics, TierStatistics::getMisses);
+        counter(registry, TIER_EVICTIONS_METER_NAME, tags, statistics, TierStatistics::getEvictions);
+        Gauge.builder(TIER_SIZE_METER_NAME, statistics, TierStatistics::getMappings)
+            .tags(tags)
+            .description("The number of entries held in the cache tier")
+            .register(registry);
+        // The on-heap tier is sized in entries and does not report its bytes
+        if (statistics.getOccupiedByteSize() >= 0) {
+            Gauge.builder(TIER_OCCUPIED_BYTES_METER_NAME, statistics, TierStatistics::getOccupiedByteSize)
+                .tags(tags)
+                .baseUnit("bytes")
+                .description("The memory or disk space used by the cache tier")
+                .register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, Tags tags, TierStatistics statistics, ToDoubleFunction<TierStatistics> f) {
+        FunctionCounter.builder(name, statistics, f).tags(tags).register(registry);
+    }
+}
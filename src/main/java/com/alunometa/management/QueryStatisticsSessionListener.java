@@ -0,0 +1,58 @@
+package com.alunometa.management;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the JDBC statements and the second-level cache lookups of the Hibernate sessions to the
+ * {@link RequestQueryStatistics} of the current thread, if any, and times the statements for the
+ * {@link SlowQueryRecorder}.
+ * <p>
+ * Hibernate creates one listener per session, as set by {@code hibernate.session.events.auto}.
+ */
+public class QueryStatisticsSessionListener extends BaseSessionEventListener {
+
+    private long jdbcStart;
+
+    // The SQL of the statement last prepared by the session, which a batch can execute after others are inspected
+    private SlowQueryRecorder.PreparedSql preparedSql;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        preparedSql = SlowQueryRecorder.takeInspectedSql();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        jdbcStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        long nanos = System.nanoTime() - jdbcStart;
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        if (statistics != null) {
+            statistics.jdbcExecuted(nanos);
+        }
+        if (preparedSql != null) {
+            preparedSql.recordExecution(nanos);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        if (statistics != null) {
+            statistics.cacheGet(hit);
+        }
+    }
+}
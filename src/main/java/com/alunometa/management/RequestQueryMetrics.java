@@ -0,0 +1,105 @@
+package com.alunometa.management;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the {@link RequestQueryStatistics} of the requests, tagged by HTTP method and URI template like
+ * {@code http.server.requests}:
+ * <ul>
+ * <li>{@code http.server.requests.jdbc}, the time spent executing JDBC statements;</li>
+ * <li>{@code http.server.requests.statements}, the number of JDBC statements;</li>
+ * <li>{@code http.server.requests.cache}, the number of second-level cache lookups, by result;</li>
+ * <li>{@code http.server.requests.entities}, the number of entities loaded.</li>
+ * </ul>
+ */
+@Component
+public class RequestQueryMetrics {
+
+    public static final String JDBC_METER_NAME = "http.server.requests.jdbc";
+    public static final String STATEMENTS_METER_NAME = "http.server.requests.statements";
+    public static final String CACHE_METER_NAME = "http.server.requests.cache";
+    public static final String ENTITIES_METER_NAME = "http.server.requests.entities";
+    public static final String METHOD_DIMENSION = "method";
+    public static final String URI_DIMENSION = "uri";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final MeterRegistry meterRegistry;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final Map<String, EndpointMeters> endpoints = new ConcurrentHashMap<>();
+
+    public RequestQueryMetrics(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory) {
+        this.meterRegistry = meterRegistry;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @PostConstruct
+    public void registerLoadListener() {
+        sessionFactory
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class)
+            .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                RequestQueryStatistics statistics = RequestQueryStatistics.current();
+                if (statistics != null) {
+                    statistics.entityLoaded();
+                }
+            });
+    }
+
+    /**
+     * Record the statistics of a request.
+     *
+     * @param method the HTTP method.
+     * @param uri the URI template of the handler.
+     * @param statistics the statistics of the request.
+     */
+    public void record(String method, String uri, RequestQueryStatistics statistics) {
+        EndpointMeters meters = endpoints.computeIfAbsent(method + ' ' + uri, key ->
+            createMeters(Tags.of(METHOD_DIMENSION, method, URI_DIMENSION, uri))
+        );
+        meters.jdbc().record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        meters.statements().record(statistics.getStatements());
+        meters.cacheHits().record(statistics.getCacheHits());
+        meters.cacheMisses().record(statistics.getCacheMisses());
+        meters.entities().record(statistics.getEntitiesLoaded());
+    }
+
+    private EndpointMeters createMeters(Tags tags) {
+        return new EndpointMeters(
+            Timer.builder(JDBC_METER_NAME)
+                .description("Time spent executing JDBC statements per request")
+                .tags(tags)
+                .register(meterRegistry),
+            summary(STATEMENTS_METER_NAME, "Number of JDBC statements per request", tags),
+            summary(CACHE_METER_NAME, "Number of second-level cache lookups per request", tags.and(RESULT_DIMENSION, "hit")),
+            summary(CACHE_METER_NAME, "Number of second-level cache lookups per request", tags.and(RESULT_DIMENSION, "miss")),
+            summary(ENTITIES_METER_NAME, "Number of entities loaded per request", tags)
+        );
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name).description(description).tags(tags).register(meterRegistry);
+    }
+
+    private record EndpointMeters(
+        Timer jdbc,
+        DistributionSummary statements,
+        DistributionSummary cacheHits,
+        DistributionSummary cacheMisses,
+        DistributionSummary entities
+    ) {}
+}
@@ -0,0 +1,118 @@
+package com.alunometa.management;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database work of the current request: the JDBC statements and their duration, the second-level cache lookups and the
+ * entities loaded.
+ * <p>
+ * The statistics are collected on the thread of the request, between {@link #begin()} and {@link #end()}, by
+ * {@link QueryStatisticsSessionListener} and {@link RequestQueryMetrics}.
+ */
+public final class RequestQueryStatistics {
+
+    private static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+
+    private long jdbcNanos;
+
+    private long cacheHits;
+
+    private long cacheMisses;
+
+    private long entitiesLoaded;
+
+    private RequestQueryStatistics() {}
+
+    /**
+     * Start collecting the statistics of the current thread.
+     *
+     * @return the statistics.
+     */
+    public static RequestQueryStatistics begin() {
+        RequestQueryStatistics statistics = new RequestQueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Get the statistics of the current thread.
+     *
+     * @return the statistics, or {@code null} when they are not collected.
+     */
+    public static RequestQueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop collecting the statistics of the current thread.
+     *
+     * @return the statistics, or {@code null} when they were not collected.
+     */
+    public static RequestQueryStatistics end() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    void jdbcExecuted(long nanos) {
+        jdbcNanos += nanos;
+        statements++;
+    }
+
+    void cacheGet(boolean hit) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    /**
+     * Get the number of JDBC statements executed, a batch counting as one.
+     *
+     * @return the number of statements.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    /**
+     * Format the statistics as the value of a {@code Server-Timing} header.
+     *
+     * @return the header value.
+     */
+    public String toServerTiming() {
+        return String.format(
+            Locale.ROOT,
+            "db;desc=\"%d statements\";dur=%.3f, l2c;desc=\"%d hits %d misses\", load;desc=\"%d entities\"",
+            statements,
+            jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            cacheHits,
+            cacheMisses,
+            entitiesLoaded
+        );
+    }
+}
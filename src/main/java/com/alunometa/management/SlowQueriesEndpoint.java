@@ -0,0 +1,39 @@
+package com.alunometa.management;
+
+import com.alunometa.config.ApplicationProperties;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the SQL fingerprints with the highest total execution time, recorded by the
+ * {@link SlowQueryRecorder}.
+ * <p>
+ * {@code GET /management/slowqueries?limit=10} lists them, {@code DELETE /management/slowqueries} resets them.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    private final int defaultLimit;
+
+    public SlowQueriesEndpoint(SlowQueryRecorder slowQueryRecorder, ApplicationProperties applicationProperties) {
+        this.slowQueryRecorder = slowQueryRecorder;
+        this.defaultLimit = applicationProperties.getSlowQueries().getTop();
+    }
+
+    @ReadOperation
+    public List<SlowQueryRecorder.QueryStatistics> slowQueries(@Nullable Integer limit) {
+        return slowQueryRecorder.top(limit != null ? limit : defaultLimit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryRecorder.reset();
+    }
+}
@@ -0,0 +1,231 @@
+package com.alunometa.management;
+
+import com.alunometa.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates the execution times of the SQL statements by fingerprint, and logs the statements slower than
+ * {@code application.slow-queries.threshold}.
+ * <p>
+ * The fingerprint of a statement is its SQL with the literals replaced by {@code ?}, so that the statements differing
+ * only by their values are aggregated together. The SQL of a statement is seen by this {@link StatementInspector} before
+ * Hibernate prepares it, then taken by the {@link QueryStatisticsSessionListener} of the session when the statement is
+ * prepared, which times its executions: a JDBC batch executed after the SQL of another statement was inspected is
+ * still recorded with its own SQL. The recorder is the statement inspector of its own session factory, set by
+ * {@code DatabaseConfiguration}, so that each application context sharing the JVM, such as the cached test contexts,
+ * records its own statements.
+ * <p>
+ * At most {@code application.slow-queries.max-fingerprints} fingerprints are kept: past this, a new fingerprint
+ * replaces the one with the lowest total time. The percentiles are estimated from a histogram whose buckets are a
+ * quarter of a power of two wide.
+ */
+@Component
+public class SlowQueryRecorder implements StatementInspector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlowQueryRecorder.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Hibernate generates a bounded set of SQL strings, which mostly differ by their literals otherwise
+    private static final int MAX_CACHED_FINGERPRINTS = 2000;
+
+    // The statement inspected on each thread and not prepared yet, with the recorder of its session factory
+    private static final ThreadLocal<PreparedSql> INSPECTED_SQL = new ThreadLocal<>();
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final Map<String, QueryAggregate> aggregates = new ConcurrentHashMap<>();
+
+    private final long thresholdNanos;
+
+    private final int maxFingerprints;
+
+    public SlowQueryRecorder(ApplicationProperties applicationProperties) {
+        ApplicationProperties.SlowQueries slowQueries = applicationProperties.getSlowQueries();
+        this.thresholdNanos = slowQueries.getThreshold().toNanos();
+        this.maxFingerprints = slowQueries.getMaxFingerprints();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        INSPECTED_SQL.set(new PreparedSql(this, sql));
+        return sql;
+    }
+
+    /**
+     * Take the SQL last inspected on the current thread, for the statement being prepared.
+     *
+     * @return the SQL of the statement, or {@code null} if it was not inspected.
+     */
+    static PreparedSql takeInspectedSql() {
+        PreparedSql preparedSql = INSPECTED_SQL.get();
+        INSPECTED_SQL.remove();
+        return preparedSql;
+    }
+
+    void record(String sql, long nanos) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            if (fingerprints.size() >= MAX_CACHED_FINGERPRINTS) {
+                fingerprints.clear();
+            }
+            fingerprint = fingerprint(sql);
+            fingerprints.put(sql, fingerprint);
+        }
+        QueryAggregate aggregate = aggregates.get(fingerprint);
+        if (aggregate == null) {
+            aggregate = newAggregate(fingerprint);
+        }
+        aggregate.record(nanos);
+        if (nanos >= thresholdNanos) {
+            LOG.warn("Slow query, {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), fingerprint);
+        }
+    }
+
+    private synchronized QueryAggregate newAggregate(String fingerprint) {
+        QueryAggregate aggregate = aggregates.get(fingerprint);
+        if (aggregate != null) {
+            return aggregate;
+        }
+        if (aggregates.size() >= maxFingerprints) {
+            aggregates
+                .entrySet()
+                .stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().totalNanos()))
+                .ifPresent(entry -> aggregates.remove(entry.getKey()));
+        }
+        aggregate = new QueryAggregate();
+        aggregates.put(fingerprint, aggregate);
+        return aggregate;
+    }
+
+    /**
+     * Normalise a SQL statement: literals and lists of parameters become a single {@code ?}, and whitespace a single
+     * space.
+     *
+     * @param sql the SQL statement.
+     * @return the fingerprint.
+     */
+    static String fingerprint(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMERIC_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("(?)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    /**
+     * Get the fingerprints with the highest total execution time.
+     *
+     * @param limit the maximum number of fingerprints.
+     * @return the statistics of the fingerprints, by decreasing total time.
+     */
+    public List<QueryStatistics> top(int limit) {
+        return aggregates
+            .entrySet()
+            .stream()
+            .map(entry -> entry.getValue().statistics(entry.getKey()))
+            .sorted(Comparator.comparing(QueryStatistics::total).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Forget the statistics recorded so far.
+     */
+    public void reset() {
+        aggregates.clear();
+    }
+
+    record PreparedSql(SlowQueryRecorder recorder, String sql) {
+        void recordExecution(long nanos) {
+            recorder.record(sql, nanos);
+        }
+    }
+
+    public record QueryStatistics(String fingerprint, long count, Duration total, Duration mean, Duration max, Duration p99) {}
+
+    private static final class QueryAggregate {
+
+        // 4 buckets per power of two of microseconds, up to 2^40 µs
+        private static final int SUB_BUCKETS = 4;
+
+        private final long[] buckets = new long[41 * SUB_BUCKETS];
+
+        private long count;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            buckets[bucket(TimeUnit.NANOSECONDS.toMicros(nanos))]++;
+        }
+
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        synchronized QueryStatistics statistics(String fingerprint) {
+            return new QueryStatistics(
+                fingerprint,
+                count,
+                Duration.ofNanos(totalNanos),
+                Duration.ofNanos(count > 0 ? totalNanos / count : 0),
+                Duration.ofNanos(maxNanos),
+                Duration.ofNanos(Math.min(maxNanos, TimeUnit.MICROSECONDS.toNanos(percentile(0.99))))
+            );
+        }
+
+        /**
+         * Returns the upper bound, in microseconds, of the bucket holding the given percentile.
+         */
+        private long percentile(double percentile) {
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(buckets.length - 1);
+        }
+
+        private static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) ((micros >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+            return Math.min((exponent - 1) * SUB_BUCKETS + subBucket, 41 * SUB_BUCKETS - 1);
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket + 1;
+            }
+            int exponent = bucket / SUB_BUCKETS + 1;
+            int subBucket = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 2));
+        }
+    }
+}
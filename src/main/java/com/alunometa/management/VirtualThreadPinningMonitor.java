@@ -0,0 +1,95 @@
+package com.alunometa.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects the virtual threads pinned to their carrier thread, from the {@code jdk.VirtualThreadPinned} JFR event.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block or below a native frame keeps its carrier, which the
+ * other virtual threads cannot use meanwhile: a JDBC driver or a library doing so under load starves the application.
+ * Each pinning longer than 20 ms is timed by the {@code jvm.threads.virtual.pinned} meter, and its stack
+ * trace is logged the first time its location, the first frame of the application or else the top frame, is seen.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    public static final String PINNED_METER_NAME = "jvm.threads.virtual.pinned";
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+
+    private static final String APPLICATION_PACKAGE = "com.alunometa.";
+
+    private final Timer pinnedTimer;
+
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder(PINNED_METER_NAME)
+            .description("Duration while a virtual thread was pinned to its carrier thread")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        LOG.debug("Monitoring the virtual threads pinned for more than {}", THRESHOLD);
+    }
+
+    @PreDestroy
+    public void stop() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String location = frames
+            .stream()
+            .map(VirtualThreadPinningMonitor::format)
+            .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+            .findFirst()
+            .orElse(frames.isEmpty() ? "unknown" : format(frames.get(0)));
+        if (loggedLocations.add(location)) {
+            LOG.warn(
+                "Virtual thread pinned for {} ms at {}:\n\t{}",
+                event.getDuration().toMillis(),
+                location,
+                frames.stream().map(VirtualThreadPinningMonitor::format).collect(Collectors.joining("\n\t"))
+            );
+        } else {
+            LOG.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -1,7 +1,9 @@
 package com.alunometa.repository;
 
 import com.alunometa.domain.Aluno;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,14 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AlunoRepository extends JpaRepository<Aluno, Long>, JpaSpecificationExecutor<Aluno> {}
+public interface AlunoRepository extends AlunoRepositoryWithPartialUpdate, JpaRepository<Aluno, Long>, JpaSpecificationExecutor<Aluno> {
+    /**
+     * Load the metas of the given alunos in one query: when the alunos are managed by the current persistence context,
+     * their {@code metas} collections are initialized in place.
+     *
+     * @param alunos the alunos whose metas to load.
+     * @return the alunos, in no particular order.
+     */
+    @Query("select distinct aluno from Aluno aluno left join fetch aluno.metas where aluno in :alunos")
+    List<Aluno> fetchMetas(@Param("alunos") List<Aluno> alunos);
+}
@@ -0,0 +1,22 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.Aluno;
+import java.util.Optional;
+
+/**
+ * Conditional partial update of the Aluno entity, by a single native statement.
+ */
+public interface AlunoRepositoryWithPartialUpdate {
+    /**
+     * Update the non-null fields of an aluno and increment its version, if it still has the expected version.
+     * <p>
+     * The {@code null} fields keep their current values, so that concurrent updates of different fields do not
+     * overwrite each other. The new state is returned by the statement itself, and only this aluno is evicted from the
+     * second-level caches.
+     *
+     * @param aluno the fields to update, with the id of the aluno and the version it must still have, or a
+     * {@code null} version to update any version.
+     * @return the updated aluno, or empty if it does not exist or has another version.
+     */
+    Optional<Aluno> partialUpdate(Aluno aluno);
+}
@@ -0,0 +1,48 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.Aluno;
+import com.alunometa.repository.invalidation.ClusterCacheInvalidator;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+public class AlunoRepositoryWithPartialUpdateImpl implements AlunoRepositoryWithPartialUpdate {
+
+    private static final String PARTIAL_UPDATE =
+        "update aluno set nome = coalesce(:nome, nome), email = coalesce(:email, email)," +
+        " data_nascimento = coalesce(:dataNascimento, data_nascimento), telefone = coalesce(:telefone, telefone)," +
+        " version = version + 1 where id = :id and version = coalesce(:version, version) returning *";
+
+    private final EntityManager entityManager;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    public AlunoRepositoryWithPartialUpdateImpl(EntityManager entityManager, ClusterCacheInvalidator clusterCacheInvalidator) {
+        this.entityManager = entityManager;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+    }
+
+    @Override
+    public Optional<Aluno> partialUpdate(Aluno aluno) {
+        NativeEntityUpdates.detach(entityManager, Aluno.class, aluno.getId());
+        List<Aluno> updated = entityManager
+            .unwrap(Session.class)
+            .createNativeQuery(PARTIAL_UPDATE, Aluno.class)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, "aluno")
+            .setParameter("id", aluno.getId(), Long.class)
+            .setParameter("version", aluno.getVersion(), Long.class)
+            .setParameter("nome", aluno.getNome(), String.class)
+            .setParameter("email", aluno.getEmail(), String.class)
+            .setParameter("dataNascimento", aluno.getDataNascimento(), LocalDate.class)
+            .setParameter("telefone", aluno.getTelefone(), String.class)
+            .getResultList();
+        if (updated.isEmpty()) {
+            return Optional.empty();
+        }
+        NativeEntityUpdates.evict(entityManager, clusterCacheInvalidator, Aluno.class, aluno.getId());
+        return Optional.of(updated.get(0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.AlunoSummary;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the AlunoSummary entity.
+ * <p>
+ * The summaries are computed from the {@code aluno} and {@code meta} tables by a single aggregation, shared by the
+ * refresh of the summaries of some alunos and the backfill of the missing ones. The statements declare the only table they write
+ * to, so that Hibernate does not evict the whole second-level cache after them.
+ */
+@Repository
+public interface AlunoSummaryRepository extends JpaRepository<AlunoSummary, Long> {
+    String SUMMARY_COLUMNS =
+        "aluno_id, nome, email, data_nascimento, telefone, linguagens, humanas, natureza, matematica, meta_count, last_modified_date";
+
+    // The columns of the aluno depend on its id, which the metas are grouped by
+    String SUMMARY_SELECT =
+        "select aluno.id, aluno.nome, aluno.email, aluno.data_nascimento, aluno.telefone," +
+        " max(meta.valor) filter (where meta.area = 'LINGUAGENS')," +
+        " max(meta.valor) filter (where meta.area = 'HUMANAS')," +
+        " max(meta.valor) filter (where meta.area = 'NATUREZA')," +
+        " max(meta.valor) filter (where meta.area = 'MATEMATICA')," +
+        " count(meta.id)," +
+        " current_timestamp" +
+        " from aluno aluno left join meta meta on meta.aluno_id = aluno.id";
+
+    /**
+     * Lock the given alunos until the end of the transaction, so that the summary of an aluno is computed by one
+     * transaction at a time, from the metas committed by the previous one.
+     *
+     * @param alunoIds the ids of the alunos.
+     * @return the ids of the existing alunos.
+     */
+    @Query(value = "select aluno.id from aluno aluno where aluno.id in (:alunoIds) order by aluno.id for update", nativeQuery = true)
+    List<Long> lockAlunos(@Param("alunoIds") Collection<Long> alunoIds);
+
+    /**
+     * Compute the summaries of the given alunos from their columns and metas, including the changes not flushed yet.
+     *
+     * @param alunoIds the ids of the alunos.
+     * @return the number of summaries written.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "aluno_summary"))
+    @Query(
+        value = "insert into aluno_summary (" +
+        SUMMARY_COLUMNS +
+        ") " +
+        SUMMARY_SELECT +
+        " where aluno.id in (:alunoIds) group by aluno.id" +
+        " on conflict (aluno_id) do update set nome = excluded.nome, email = excluded.email," +
+        " data_nascimento = excluded.data_nascimento, telefone = excluded.telefone, linguagens = excluded.linguagens," +
+        " humanas = excluded.humanas, natureza = excluded.natureza, matematica = excluded.matematica," +
+        " meta_count = excluded.meta_count," +
+        " last_modified_date = excluded.last_modified_date",
+        nativeQuery = true
+    )
+    int refresh(@Param("alunoIds") Collection<Long> alunoIds);
+
+    /**
+     * Compute the summaries of a batch of the alunos which have none.
+     *
+     * @param batchSize the maximum number of summaries to compute.
+     * @return the number of summaries written, {@code 0} when every aluno has one.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "aluno_summary"))
+    @Query(
+        value = "insert into aluno_summary (" +
+        SUMMARY_COLUMNS +
+        ") " +
+        SUMMARY_SELECT +
+        " where aluno.id in (select missing.id from aluno missing" +
+        " where not exists (select 1 from aluno_summary summary where summary.aluno_id = missing.id)" +
+        " order by missing.id limit :batchSize)" +
+        " group by aluno.id on conflict (aluno_id) do nothing",
+        nativeQuery = true
+    )
+    int backfill(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "aluno_summary"))
+    @Query(value = "delete from aluno_summary where aluno_id = :alunoId", nativeQuery = true)
+    void deleteByAlunoId(@Param("alunoId") Long alunoId);
+}
@@ -0,0 +1,158 @@
+package com.alunometa.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version tags of the versioned entities, used as their HTTP entity tags.
+ * <p>
+ * The version tag of an entity is its version, followed by the version of each versioned entity it references through
+ * a to-one association: these are serialised with the entity, so their changes must change its tag too. The tag of an
+ * entity is read from the second-level cache when the entity and its references are cached, without loading them, and
+ * otherwise by a query selecting the versions only.
+ */
+@Component
+public class EntityVersions {
+
+    private final EntityManager entityManager;
+
+    public EntityVersions(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get the version tag of an entity, in a transaction.
+     *
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     * @return the version tag, or empty if there is no such entity.
+     */
+    public Optional<String> findVersionTag(Class<?> entityClass, Object id) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = persister(entityClass);
+        List<Integer> references = versionedReferences(persister);
+        CacheEntry entry = cacheEntry(session, persister, id);
+        if (entry != null) {
+            StringBuilder tag = new StringBuilder().append(entry.getVersion());
+            boolean cached = true;
+            for (int property : references) {
+                // The disassembled state of a to-one association is the id of the referenced entity
+                Object referenceId = entry.getDisassembledState()[property];
+                if (referenceId == null) {
+                    appendReferenceVersion(tag, null);
+                    continue;
+                }
+                CacheEntry referenceEntry = cacheEntry(session, referencePersister(persister, property), referenceId);
+                if (referenceEntry == null) {
+                    cached = false;
+                    break;
+                }
+                appendReferenceVersion(tag, referenceEntry.getVersion());
+            }
+            if (cached) {
+                return Optional.of(tag.toString());
+            }
+        }
+        return queryVersionTag(persister, references, id);
+    }
+
+    /**
+     * Get the version tag of a loaded entity.
+     * <p>
+     * A reference which is not loaded is serialised as its id only, which cannot change without the version of the
+     * entity: it is tagged like a missing reference.
+     *
+     * @param entity the entity.
+     * @return the version tag.
+     */
+    public String versionTag(Object entity) {
+        EntityPersister persister = persister(Hibernate.getClass(entity));
+        StringBuilder tag = new StringBuilder().append(persister.getVersion(entity));
+        for (int property : versionedReferences(persister)) {
+            Object reference = persister.getValue(entity, property);
+            if (reference != null && Hibernate.isInitialized(reference)) {
+                appendReferenceVersion(tag, referencePersister(persister, property).getVersion(Hibernate.unproxy(reference)));
+            } else {
+                appendReferenceVersion(tag, null);
+            }
+        }
+        return tag.toString();
+    }
+
+    private Optional<String> queryVersionTag(EntityPersister persister, List<Integer> references, Object id) {
+        String[] propertyNames = persister.getPropertyNames();
+        StringBuilder select = new StringBuilder("select entity.").append(propertyNames[persister.getVersionProperty()]);
+        StringBuilder from = new StringBuilder(" from ").append(persister.getEntityName()).append(" entity");
+        for (int i = 0; i < references.size(); i++) {
+            EntityPersister referencePersister = referencePersister(persister, references.get(i));
+            select.append(", reference").append(i).append('.');
+            select.append(referencePersister.getPropertyNames()[referencePersister.getVersionProperty()]);
+            from.append(" left join entity.").append(propertyNames[references.get(i)]).append(" reference").append(i);
+        }
+        from.append(" where entity.").append(persister.getIdentifierPropertyName()).append(" = :id");
+        return entityManager
+            .createQuery(select.append(from).toString(), Object[].class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .map(versions -> {
+                StringBuilder tag = new StringBuilder().append(versions[0]);
+                for (int i = 1; i < versions.length; i++) {
+                    appendReferenceVersion(tag, versions[i]);
+                }
+                return tag.toString();
+            });
+    }
+
+    private static void appendReferenceVersion(StringBuilder tag, Object version) {
+        tag.append('-');
+        if (version != null) {
+            tag.append(version);
+        }
+    }
+
+    private static CacheEntry cacheEntry(SharedSessionContractImplementor session, EntityPersister persister, Object id) {
+        if (!persister.canReadFromCache() || !session.getCacheMode().isGetEnabled()) {
+            return null;
+        }
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        // Absent, or being updated
+        return cacheAccess.get(session, key) instanceof CacheEntry entry && entry.getVersion() != null ? entry : null;
+    }
+
+    private static List<Integer> versionedReferences(EntityPersister persister) {
+        if (!persister.isVersioned()) {
+            throw new IllegalArgumentException(persister.getEntityName() + " is not versioned");
+        }
+        Type[] types = persister.getPropertyTypes();
+        List<Integer> references = new ArrayList<>();
+        for (int property = 0; property < types.length; property++) {
+            if (types[property] instanceof EntityType && referencePersister(persister, property).isVersioned()) {
+                references.add(property);
+            }
+        }
+        return references;
+    }
+
+    private static EntityPersister referencePersister(EntityPersister persister, int property) {
+        EntityType type = (EntityType) persister.getPropertyTypes()[property];
+        return persister.getFactory().getMappingMetamodel().getEntityDescriptor(type.getAssociatedEntityName());
+    }
+
+    private EntityPersister persister(Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+    }
+}
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data JPA repository for the Meta entity.
  */
 @Repository
-public interface MetaRepository extends JpaRepository<Meta, Long>, JpaSpecificationExecutor<Meta> {
+public interface MetaRepository extends MetaRepositoryWithPartialUpdate, JpaRepository<Meta, Long>, JpaSpecificationExecutor<Meta> {
     default Optional<Meta> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -0,0 +1,32 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import java.util.Optional;
+
+/**
+ * Conditional partial update of the Meta entity, by a single native statement.
+ */
+public interface MetaRepositoryWithPartialUpdate {
+    /**
+     * Update the non-null fields of a meta and increment its version, if it still has the expected version.
+     * <p>
+     * The {@code null} fields keep their current values, so that concurrent updates of different fields do not
+     * overwrite each other. The statement locks the meta, then returns both its previous valor and area and its new
+     * state, and only this meta is evicted from the second-level caches.
+     *
+     * @param meta the fields to update, with the id of the meta and the version it must still have, or a {@code null}
+     * version to update any version.
+     * @return the updated meta, or empty if it does not exist or has another version.
+     */
+    Optional<UpdatedMeta> partialUpdate(Meta meta);
+
+    /**
+     * A meta updated by {@link #partialUpdate(Meta)}.
+     *
+     * @param meta the meta, in its new state.
+     * @param previousArea the area of the meta before the update.
+     * @param previousValor the valor of the meta before the update.
+     */
+    record UpdatedMeta(Meta meta, AreaDoEnem previousArea, Integer previousValor) {}
+}
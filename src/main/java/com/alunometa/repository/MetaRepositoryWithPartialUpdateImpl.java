@@ -0,0 +1,54 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.repository.invalidation.ClusterCacheInvalidator;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+public class MetaRepositoryWithPartialUpdateImpl implements MetaRepositoryWithPartialUpdate {
+
+    // The previous values are read by the locking sub-select, which waits for a concurrent update of the meta
+    private static final String PARTIAL_UPDATE =
+        "update meta set valor = coalesce(:valor, meta.valor), area = coalesce(:area, meta.area)," +
+        " descricao = coalesce(:descricao, meta.descricao), version = meta.version + 1" +
+        " from (select id, valor, area from meta where id = :id and version = coalesce(:version, version) for update) previous" +
+        " where meta.id = previous.id returning previous.valor as previous_valor, previous.area as previous_area, meta.*";
+
+    private final EntityManager entityManager;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    public MetaRepositoryWithPartialUpdateImpl(EntityManager entityManager, ClusterCacheInvalidator clusterCacheInvalidator) {
+        this.entityManager = entityManager;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<UpdatedMeta> partialUpdate(Meta meta) {
+        NativeEntityUpdates.detach(entityManager, Meta.class, meta.getId());
+        List<Object[]> updated = entityManager
+            .unwrap(Session.class)
+            .createNativeQuery(PARTIAL_UPDATE)
+            .addEntity(Meta.class)
+            .addScalar("previous_valor", Integer.class)
+            .addScalar("previous_area", String.class)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, "meta")
+            .setParameter("id", meta.getId(), Long.class)
+            .setParameter("version", meta.getVersion(), Long.class)
+            .setParameter("valor", meta.getValor(), Integer.class)
+            .setParameter("area", meta.getArea() != null ? meta.getArea().name() : null, String.class)
+            .setParameter("descricao", meta.getDescricao(), String.class)
+            .getResultList();
+        if (updated.isEmpty()) {
+            return Optional.empty();
+        }
+        NativeEntityUpdates.evict(entityManager, clusterCacheInvalidator, Meta.class, meta.getId());
+        Object[] row = updated.get(0);
+        return Optional.of(new UpdatedMeta((Meta) row[0], AreaDoEnem.valueOf((String) row[2]), (Integer) row[1]));
+    }
+}
@@ -0,0 +1,68 @@
+package com.alunometa.repository;
+
+import com.alunometa.repository.invalidation.CacheInvalidation;
+import com.alunometa.repository.invalidation.ClusterCacheInvalidator;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Support of the native statements updating a single entity and returning its new state.
+ * <p>
+ * Hibernate evicts a whole entity region after a bulk statement, and does not see the entities changed by a native
+ * statement read as a result set. Such a statement is instead run with the entity table as its only query space, which
+ * flushes the pending changes of the table without evicting anything, and the updated entity is then evicted alone:
+ * at once, then again when the transaction completes so that a concurrent load cannot leave its previous state in the
+ * cache, and from the other instances once the transaction committed.
+ */
+final class NativeEntityUpdates {
+
+    private NativeEntityUpdates() {}
+
+    /**
+     * Detach the entity from the persistence context if it is managed, as a query returns the managed instance of an
+     * entity unchanged. Its pending changes are flushed first.
+     *
+     * @param entityManager the entity manager.
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    static void detach(EntityManager entityManager, Class<?> entityClass, Object id) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        Object managed = persistenceContext.getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            entityManager.flush();
+            entityManager.detach(managed);
+        }
+    }
+
+    /**
+     * Evict an entity updated by a native statement from the second-level caches.
+     *
+     * @param entityManager the entity manager.
+     * @param clusterCacheInvalidator the broadcaster of the evictions to the other instances.
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    static void evict(EntityManager entityManager, ClusterCacheInvalidator clusterCacheInvalidator, Class<?> entityClass, Object id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(entityClass, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evict(entityClass, id);
+                    }
+                }
+            );
+        }
+        clusterCacheInvalidator.invalidate(CacheInvalidation.entity(entityClass.getName(), id));
+    }
+}
@@ -0,0 +1,24 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.OutboundMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link OutboundMail} entity.
+ */
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+    /**
+     * Lock the mails due for an attempt, skipping the ones already locked by another instance.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // A lock timeout of -2 is Hibernate's SKIP LOCKED
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboundMail> findByNextAttemptDateLessThanEqualOrderByNextAttemptDate(Instant date, Limit limit);
+}
@@ -0,0 +1,176 @@
+package com.alunometa.repository;
+
+import com.alunometa.domain.User;
+import com.alunometa.repository.invalidation.CacheInvalidation;
+import com.alunometa.repository.invalidation.ClusterCacheInvalidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the users with their authorities, serving the logins, the current account and the administration lookups.
+ * <p>
+ * The users are cached by login in {@link UserRepository#USERS_BY_LOGIN_CACHE}, while
+ * {@link UserRepository#USERS_BY_EMAIL_CACHE} only maps the emails to the logins: a user is cached once, and a lookup
+ * by email checks the email of the cached user, so that the entry of a previous email is never served.
+ * <p>
+ * {@link #evict(User)} is the single invalidation point of both caches. It evicts the user at once, then again when
+ * the current transaction completes, so that a lookup running concurrently with the transaction cannot leave the
+ * state before its commit in the cache. Once the transaction committed, the eviction is broadcast to the other
+ * instances by the {@link ClusterCacheInvalidator}, with the authorities of the user in the second-level cache.
+ */
+@Component
+public class UserCache {
+
+    public static final String LOOKUPS_METER_NAME = "user.cache.lookups";
+    public static final String EVICTIONS_METER_NAME = "user.cache.evictions";
+    public static final String KEY_DIMENSION = "key";
+    public static final String RESULT_DIMENSION = "result";
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserCache.class);
+
+    private static final String USER_AUTHORITIES_ROLE = User.class.getName() + ".authorities";
+
+    private final UserRepository userRepository;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    private final Cache usersByLogin;
+
+    private final Cache loginsByEmail;
+
+    private final Counter loginHitCounter;
+
+    private final Counter loginMissCounter;
+
+    private final Counter emailHitCounter;
+
+    private final Counter emailMissCounter;
+
+    private final Counter evictionCounter;
+
+    public UserCache(
+        UserRepository userRepository,
+        CacheManager cacheManager,
+        ClusterCacheInvalidator clusterCacheInvalidator,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+        this.usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        this.loginsByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        this.loginHitCounter = lookupsCounter(meterRegistry, "login", "hit");
+        this.loginMissCounter = lookupsCounter(meterRegistry, "login", "miss");
+        this.emailHitCounter = lookupsCounter(meterRegistry, "email", "hit");
+        this.emailMissCounter = lookupsCounter(meterRegistry, "email", "miss");
+        this.evictionCounter = Counter.builder(EVICTIONS_METER_NAME)
+            .description("Number of users evicted from the user caches")
+            .register(meterRegistry);
+    }
+
+    private static Counter lookupsCounter(MeterRegistry meterRegistry, String key, String result) {
+        return Counter.builder(LOOKUPS_METER_NAME)
+            .description("Number of lookups of a user with its authorities in the user caches")
+            .tag(KEY_DIMENSION, key)
+            .tag(RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get a user with its authorities by login.
+     *
+     * @param login the login, in lower case.
+     * @return the user, from the cache if present.
+     */
+    public Optional<User> getByLogin(String login) {
+        User user = usersByLogin.get(login, User.class);
+        if (user != null) {
+            loginHitCounter.increment();
+            return Optional.of(user);
+        }
+        loginMissCounter.increment();
+        Optional<User> loaded = userRepository.findOneWithAuthoritiesByLogin(login);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Get a user with its authorities by email, ignoring case.
+     *
+     * @param email the email.
+     * @return the user, from the cache if present.
+     */
+    public Optional<User> getByEmail(String email) {
+        String key = email.toLowerCase(Locale.ENGLISH);
+        String login = loginsByEmail.get(key, String.class);
+        if (login != null) {
+            User user = usersByLogin.get(login, User.class);
+            if (user != null && key.equalsIgnoreCase(user.getEmail())) {
+                emailHitCounter.increment();
+                return Optional.of(user);
+            }
+        }
+        emailMissCounter.increment();
+        Optional<User> loaded = userRepository.findOneWithAuthoritiesByEmailIgnoreCase(email);
+        loaded.ifPresentOrElse(this::put, () -> loginsByEmail.evictIfPresent(key));
+        return loaded;
+    }
+
+    private void put(User user) {
+        usersByLogin.put(user.getLogin(), user);
+        if (user.getEmail() != null) {
+            loginsByEmail.put(user.getEmail().toLowerCase(Locale.ENGLISH), user.getLogin());
+        }
+    }
+
+    /**
+     * Evict a user from the caches, now and when the current transaction completes.
+     * <p>
+     * To be called by every change of a user or of its authorities, before a change of its login or email and after
+     * any change.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        String login = user.getLogin();
+        String email = user.getEmail();
+        evictionCounter.increment();
+        evict(login, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict(login, email);
+                    }
+                }
+            );
+        }
+        clusterCacheInvalidator.invalidate(CacheInvalidation.cache(UserRepository.USERS_BY_LOGIN_CACHE, login));
+        if (email != null) {
+            clusterCacheInvalidator.invalidate(
+                CacheInvalidation.cache(UserRepository.USERS_BY_EMAIL_CACHE, email.toLowerCase(Locale.ENGLISH))
+            );
+        }
+        if (user.getId() != null) {
+            clusterCacheInvalidator.invalidate(CacheInvalidation.collection(USER_AUTHORITIES_ROLE, user.getId()));
+        }
+    }
+
+    private void evict(String login, String email) {
+        LOG.debug("Evicting user {} from the user caches", login);
+        usersByLogin.evictIfPresent(login);
+        if (email != null) {
+            loginsByEmail.evictIfPresent(email.toLowerCase(Locale.ENGLISH));
+        }
+    }
+}
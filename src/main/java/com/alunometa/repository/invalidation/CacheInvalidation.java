@@ -0,0 +1,37 @@
+package com.alunometa.repository.invalidation;
+
+/**
+ * Eviction of one cache entry, broadcast to the other instances.
+ *
+ * @param type the kind of cache.
+ * @param region the entity name, the collection role or the cache name.
+ * @param key the entity id, the collection owner id or the cache key.
+ */
+public record CacheInvalidation(Type type, String region, Object key) {
+    public enum Type {
+        /**
+         * Second-level cache entry of an entity.
+         */
+        ENTITY,
+        /**
+         * Second-level cache entry of a collection.
+         */
+        COLLECTION,
+        /**
+         * Entry of a Spring cache.
+         */
+        CACHE,
+    }
+
+    public static CacheInvalidation entity(String entityName, Object id) {
+        return new CacheInvalidation(Type.ENTITY, entityName, id);
+    }
+
+    public static CacheInvalidation collection(String role, Object ownerId) {
+        return new CacheInvalidation(Type.COLLECTION, role, ownerId);
+    }
+
+    public static CacheInvalidation cache(String cacheName, Object key) {
+        return new CacheInvalidation(Type.CACHE, cacheName, key);
+    }
+}
@@ -0,0 +1,32 @@
+package com.alunometa.repository.invalidation;
+
+import java.util.List;
+
+/**
+ * Channel carrying the cache evictions between the instances, selected by
+ * {@code application.cache.invalidation.transport}.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Broadcast evictions to the other instances.
+     *
+     * @param invalidations the evictions, sent as one message when the transport allows it.
+     */
+    void publish(List<CacheInvalidation> invalidations);
+
+    /**
+     * Start receiving the evictions of the other instances, without the ones published by this instance.
+     *
+     * @param subscriber the subscriber.
+     */
+    void subscribe(Subscriber subscriber);
+
+    interface Subscriber {
+        void onInvalidations(List<CacheInvalidation> invalidations);
+
+        /**
+         * Called when evictions may have been lost, for example after a reconnection.
+         */
+        void onMissedInvalidations();
+    }
+}
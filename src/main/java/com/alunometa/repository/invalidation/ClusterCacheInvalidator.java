@@ -0,0 +1,237 @@
+package com.alunometa.repository.invalidation;
+
+import com.alunometa.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the caches of the instances sharing the database consistent, through the {@link CacheInvalidationTransport}
+ * set by {@code application.cache.invalidation.transport}.
+ * <p>
+ * The second-level cache entries of the entities updated or deleted, and of the {@code Aluno.metas} collections whose
+ * metas changed, are broadcast once their transaction committed, as well as the evictions of the user caches. The
+ * evictions are collected for {@code application.cache.invalidation.batch-window}, then broadcast together in messages
+ * of at most {@code max-batch-size} evictions. An eviction which cannot be broadcast is dropped: the other instances
+ * then serve the entry until it expires.
+ * <p>
+ * The evictions received from the other instances are applied to the local caches. When some may have been missed, all
+ * the caches are cleared.
+ * <p>
+ * Without a transport, nothing is broadcast.
+ */
+@Component
+public class ClusterCacheInvalidator implements CacheInvalidationTransport.Subscriber {
+
+    public static final String INVALIDATIONS_METER_NAME = "cache.invalidations";
+    public static final String RESULT_DIMENSION = "result";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+
+    private final CacheInvalidationTransport transport;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Cache.Invalidation properties;
+
+    private final Counter publishedCounter;
+
+    private final Counter receivedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Set<CacheInvalidation> pending = new LinkedHashSet<>();
+
+    private boolean flushScheduled;
+
+    private ScheduledExecutorService publisher;
+
+    public ClusterCacheInvalidator(
+        ObjectProvider<CacheInvalidationTransport> transport,
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.transport = transport.getIfAvailable();
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getCache().getInvalidation();
+        this.publishedCounter = invalidationsCounter(meterRegistry, "published");
+        this.receivedCounter = invalidationsCounter(meterRegistry, "received");
+        this.droppedCounter = invalidationsCounter(meterRegistry, "dropped");
+    }
+
+    private static Counter invalidationsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(INVALIDATIONS_METER_NAME)
+            .description("Number of cache evictions exchanged with the other instances")
+            .tag(RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (transport == null) {
+            return;
+        }
+        EntityCacheInvalidationListener listener = new EntityCacheInvalidationListener(this);
+        EventListenerRegistry eventListenerRegistry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transport.subscribe(this);
+        LOG.debug("Broadcasting the cache evictions with {}", transport.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisher != null) {
+            publisher.shutdown();
+            flush();
+        }
+    }
+
+    /**
+     * Broadcast the eviction of a cache entry to the other instances, once the current transaction committed if any.
+     *
+     * @param invalidation the eviction.
+     */
+    public void invalidate(CacheInvalidation invalidation) {
+        if (transport == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(invalidation);
+                    }
+                }
+            );
+        } else {
+            enqueue(invalidation);
+        }
+    }
+
+    /**
+     * Broadcast the eviction of a cache entry changed by a committed transaction.
+     *
+     * @param invalidation the eviction.
+     */
+    void enqueue(CacheInvalidation invalidation) {
+        if (transport == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.add(invalidation);
+            if (pending.size() >= properties.getMaxBatchSize()) {
+                publisher.execute(this::flush);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                publisher.schedule(this::flush, properties.getBatchWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void flush() {
+        List<CacheInvalidation> invalidations;
+        synchronized (pending) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            invalidations = new ArrayList<>(pending);
+            pending.clear();
+        }
+        int maxBatchSize = properties.getMaxBatchSize();
+        for (int start = 0; start < invalidations.size(); start += maxBatchSize) {
+            List<CacheInvalidation> batch = invalidations.subList(start, Math.min(start + maxBatchSize, invalidations.size()));
+            try {
+                transport.publish(batch);
+                publishedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                LOG.warn("Could not broadcast {} cache evictions: {}", batch.size(), e.getMessage());
+                droppedCounter.increment(batch.size());
+            }
+        }
+    }
+
+    @Override
+    public void onInvalidations(List<CacheInvalidation> invalidations) {
+        LOG.debug("Applying {} cache evictions of another instance", invalidations.size());
+        for (CacheInvalidation invalidation : invalidations) {
+            switch (invalidation.type()) {
+                case ENTITY -> {
+                    Class<?> idType = sessionFactory
+                        .getMappingMetamodel()
+                        .getEntityDescriptor(invalidation.region())
+                        .getIdentifierType()
+                        .getReturnedClass();
+                    sessionFactory.getCache().evictEntityData(invalidation.region(), objectMapper.convertValue(invalidation.key(), idType));
+                }
+                case COLLECTION -> {
+                    Class<?> keyType = sessionFactory
+                        .getMappingMetamodel()
+                        .getCollectionDescriptor(invalidation.region())
+                        .getKeyType()
+                        .getReturnedClass();
+                    sessionFactory
+                        .getCache()
+                        .evictCollectionData(invalidation.region(), objectMapper.convertValue(invalidation.key(), keyType));
+                }
+                case CACHE -> {
+                    Cache cache = cacheManager.getCache(invalidation.region());
+                    if (cache != null) {
+                        cache.evictIfPresent(invalidation.key());
+                    }
+                }
+            }
+        }
+        receivedCounter.increment(invalidations.size());
+    }
+
+    @Override
+    public void onMissedInvalidations() {
+        LOG.warn("Cache evictions of other instances may have been missed, clearing the caches");
+        sessionFactory.getCache().evictAllRegions();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alunometa.repository.invalidation;
+
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import java.util.Arrays;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hands the second-level cache entries changed by a committed transaction to the {@link ClusterCacheInvalidator}.
+ * <p>
+ * {@code Aluno.metas} is the inverse side of {@code Meta.aluno}, so Hibernate does not see its changes: the collection
+ * of the aluno of a meta, and of its previous aluno on update, is evicted with the meta.
+ */
+class EntityCacheInvalidationListener
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String ALUNO_METAS_ROLE = Aluno.class.getName() + ".metas";
+
+    private final ClusterCacheInvalidator invalidator;
+
+    EntityCacheInvalidationListener(ClusterCacheInvalidator invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // No instance caches a new entity yet
+        if (event.getEntity() instanceof Meta meta) {
+            invalidateMetas(meta.getAluno());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidator.enqueue(CacheInvalidation.entity(event.getPersister().getEntityName(), event.getId()));
+        if (event.getEntity() instanceof Meta meta) {
+            invalidateMetas(meta.getAluno());
+            Object[] oldState = event.getOldState();
+            int alunoIndex = Arrays.asList(event.getPersister().getPropertyNames()).indexOf("aluno");
+            if (oldState != null && alunoIndex >= 0) {
+                invalidateMetas(oldState[alunoIndex]);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidator.enqueue(CacheInvalidation.entity(event.getPersister().getEntityName(), event.getId()));
+        if (event.getEntity() instanceof Meta meta) {
+            invalidateMetas(meta.getAluno());
+        }
+    }
+
+    private void invalidateMetas(Object aluno) {
+        if (aluno instanceof Aluno owner && owner.getId() != null) {
+            invalidator.enqueue(CacheInvalidation.collection(ALUNO_METAS_ROLE, owner.getId()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+}
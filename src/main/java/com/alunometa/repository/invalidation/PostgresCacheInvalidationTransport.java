@@ -0,0 +1,179 @@
+package com.alunometa.repository.invalidation;
+
+import com.alunometa.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Broadcasts the cache evictions over a PostgreSQL LISTEN/NOTIFY channel.
+ * <p>
+ * The evictions are published with {@code pg_notify} in a transaction of their own, and received on a dedicated
+ * connection, outside the pool, which listens to the channel. The messages carry the id of the publishing instance, so
+ * that an instance ignores its own evictions. A notification is delivered to the connections listening when it is
+ * sent only, so the subscriber is told that evictions may have been missed each time the connection is re-established.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "postgres")
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresCacheInvalidationTransport.class);
+
+    // pg_notify rejects the payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final String channel;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    public PostgresCacheInvalidationTransport(
+        DataSourceProperties dataSourceProperties,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.channel = applicationProperties.getCache().getInvalidation().getChannel();
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid application.cache.invalidation.channel: " + channel);
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> invalidations) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Message(nodeId, invalidations));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize the cache invalidations", e);
+        }
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES && invalidations.size() > 1) {
+            int half = invalidations.size() / 2;
+            publish(invalidations.subList(0, half));
+            publish(invalidations.subList(half, invalidations.size()));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.queryForList("select pg_notify(?, ?)", channel, payload));
+    }
+
+    @Override
+    public synchronized void subscribe(Subscriber subscriber) {
+        if (listener != null) {
+            throw new IllegalStateException("The cache invalidation channel already has a subscriber");
+        }
+        running = true;
+        listener = new Thread(() -> listen(subscriber), "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen(Subscriber subscriber) {
+        boolean connected = false;
+        while (running) {
+            try (
+                Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword()
+                );
+                Statement statement = connection.createStatement()
+            ) {
+                statement.execute("LISTEN " + channel);
+                LOG.debug("Listening to the cache invalidations on channel {}", channel);
+                if (connected) {
+                    subscriber.onMissedInvalidations();
+                }
+                connected = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter(), subscriber);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                LOG.warn("Lost the cache invalidation channel, reconnecting in {}: {}", RECONNECT_DELAY, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload, Subscriber subscriber) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Ignoring an invalid cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        try {
+            subscriber.onInvalidations(message.invalidations());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not apply the cache invalidations of instance {}", message.node(), e);
+        }
+    }
+
+    record Message(String node, List<CacheInvalidation> invalidations) {}
+}
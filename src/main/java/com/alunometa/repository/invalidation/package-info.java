@@ -0,0 +1,4 @@
+/**
+ * Invalidation of the caches of the other instances.
+ */
+package com.alunometa.repository.invalidation;
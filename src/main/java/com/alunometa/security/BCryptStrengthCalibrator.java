@@ -0,0 +1,55 @@
+package com.alunometa.security;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calibration of the BCrypt strength against the duration of a password verification on the current hardware.
+ * <p>
+ * The number of rounds of BCrypt doubles with each strength: the duration of a verification is measured once, at the
+ * minimum strength, then doubled for each higher strength.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final String CALIBRATION_PASSWORD = "calibration";
+
+    private static final int MEASURES = 3;
+
+    private BCryptStrengthCalibrator() {}
+
+    /**
+     * Get the highest strength verifying a password within the target duration.
+     *
+     * @param targetDuration the target duration of a password verification.
+     * @param minStrength the minimum strength, returned even if it takes longer than the target duration.
+     * @param maxStrength the maximum strength.
+     * @return the strength.
+     */
+    public static int calibrate(Duration targetDuration, int minStrength, int maxStrength) {
+        return calibrate(targetDuration, minStrength, maxStrength, BCryptStrengthCalibrator::measure);
+    }
+
+    static int calibrate(Duration targetDuration, int minStrength, int maxStrength, IntToLongFunction verificationNanos) {
+        long nanos = verificationNanos.applyAsLong(minStrength);
+        int strength = minStrength;
+        while (strength < maxStrength && nanos * 2 <= targetDuration.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // Also warms up the encoder
+        String encoded = encoder.encode(CALIBRATION_PASSWORD);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(CALIBRATION_PASSWORD, encoded);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
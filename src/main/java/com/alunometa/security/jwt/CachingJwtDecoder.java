@@ -0,0 +1,93 @@
+package com.alunometa.security.jwt;
+
+import com.alunometa.management.SecurityMetersService;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * A {@link JwtDecoder} keeping the tokens successfully decoded by its delegate until they expire, so that the token a
+ * client sends with each of its requests is only verified once.
+ * <p>
+ * Tokens are looked up by their SHA-256 digest, and a token is decoded again by the delegate once past its expiry,
+ * which then reports it as expired. Tokens without expiry are not cached. When the cache is full, the expired tokens
+ * are evicted, then arbitrary ones if that is not enough.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    private final int maxSize;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<ByteBuffer, Jwt> decodedTokens = new ConcurrentHashMap<>();
+
+    public CachingJwtDecoder(JwtDecoder delegate, SecurityMetersService metersService, int maxSize) {
+        this(delegate, metersService, maxSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, SecurityMetersService metersService, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Jwt jwt = decodedTokens.get(key);
+        if (jwt != null) {
+            if (clock.instant().isBefore(jwt.getExpiresAt())) {
+                metersService.trackTokenCacheHit();
+                return jwt;
+            }
+            decodedTokens.remove(key, jwt);
+        }
+
+        metersService.trackTokenCacheMiss();
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            if (decodedTokens.size() >= maxSize) {
+                evict();
+            }
+            decodedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return decodedTokens.size();
+    }
+
+    private void evict() {
+        Instant now = clock.instant();
+        decodedTokens.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        // Leave some room, not to evict again on the next miss
+        Iterator<ByteBuffer> keys = decodedTokens.keySet().iterator();
+        while (decodedTokens.size() >= maxSize - maxSize / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.alunometa.security.jwt;
+
+import com.alunometa.management.SecurityMetersService;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * A {@link JwtDecoder} rejecting the malformed, unsupported and expired tokens before its delegate verifies their
+ * signature, and counting the rejected tokens by cause in {@link SecurityMetersService}.
+ * <p>
+ * The pre-validation only decodes the header and the claims of a token, and reports its outcome as a
+ * {@link TokenCheck} rather than an exception. The failures of the delegate are classified by their type, and the
+ * failed validations by the descriptions of their errors.
+ */
+public class PreValidatingJwtDecoder implements JwtDecoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreValidatingJwtDecoder.class);
+
+    /**
+     * The default clock skew of the {@link org.springframework.security.oauth2.jwt.JwtTimestampValidator} of the delegate.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    /**
+     * The start of the description of the error of the {@link org.springframework.security.oauth2.jwt.JwtTimestampValidator}
+     * for an expired token.
+     */
+    private static final String EXPIRED_DESCRIPTION = "Jwt expired";
+
+    /**
+     * The outcome of the pre-validation of a token.
+     */
+    public enum TokenCheck {
+        /**
+         * The token may be valid, depending on its signature.
+         */
+        PASSED,
+        /**
+         * The token is not a JWS in compact serialization, or its header or claims are not valid JSON.
+         */
+        MALFORMED,
+        /**
+         * The token is not signed with the expected algorithm.
+         */
+        UNSUPPORTED,
+        /**
+         * The token expired, clock skew included.
+         */
+        EXPIRED,
+    }
+
+    private final JwtDecoder delegate;
+
+    private final MacAlgorithm algorithm;
+
+    private final SecurityMetersService metersService;
+
+    private final Clock clock;
+
+    private final String expectedHeader;
+
+    public PreValidatingJwtDecoder(JwtDecoder delegate, MacAlgorithm algorithm, SecurityMetersService metersService) {
+        this(delegate, algorithm, metersService, Clock.systemUTC());
+    }
+
+    PreValidatingJwtDecoder(JwtDecoder delegate, MacAlgorithm algorithm, SecurityMetersService metersService, Clock clock) {
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+        this.metersService = metersService;
+        this.clock = clock;
+        // The header of the tokens issued by the application
+        this.expectedHeader = Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(("{\"alg\":\"" + algorithm.getName() + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        switch (check(token)) {
+            case MALFORMED:
+                metersService.trackTokenMalformed();
+                throw new RejectedJwtException("Malformed token");
+            case UNSUPPORTED:
+                metersService.trackTokenUnsupported();
+                throw new RejectedJwtException("Unsupported algorithm");
+            case EXPIRED:
+                metersService.trackTokenExpired();
+                throw new RejectedJwtException(EXPIRED_DESCRIPTION);
+            default:
+                break;
+        }
+
+        try {
+            return delegate.decode(token);
+        } catch (JwtValidationException e) {
+            if (e.getErrors().stream().anyMatch(PreValidatingJwtDecoder::isExpiry)) {
+                metersService.trackTokenExpired();
+            } else {
+                metersService.trackTokenInvalidClaims();
+            }
+            throw e;
+        } catch (BadJwtException e) {
+            if (e.getCause() instanceof BadJWSException) {
+                metersService.trackTokenInvalidSignature();
+            } else if (e.getCause() instanceof ParseException || e.getCause() instanceof BadJOSEException) {
+                metersService.trackTokenMalformed();
+            } else {
+                LOG.error("Unknown JWT error {}", e.getMessage());
+            }
+            throw e;
+        } catch (JwtException e) {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Pre-validate a token, without verifying its signature.
+     *
+     * @param token the token.
+     * @return the outcome of the pre-validation.
+     */
+    public TokenCheck check(String token) {
+        if (token == null) {
+            return TokenCheck.MALFORMED;
+        }
+        int headerEnd = token.indexOf('.');
+        int claimsEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (claimsEnd < 0 || token.indexOf('.', claimsEnd + 1) >= 0) {
+            return TokenCheck.MALFORMED;
+        }
+        if (
+            !isBase64Url(token, 0, headerEnd) ||
+            !isBase64Url(token, headerEnd + 1, claimsEnd) ||
+            !isBase64Url(token, claimsEnd + 1, token.length())
+        ) {
+            return TokenCheck.MALFORMED;
+        }
+
+        try {
+            if (headerEnd != expectedHeader.length() || !token.startsWith(expectedHeader)) {
+                Map<String, Object> header = parseJson(token, 0, headerEnd);
+                if (!algorithm.getName().equals(header.get("alg"))) {
+                    return TokenCheck.UNSUPPORTED;
+                }
+            }
+            Object expiresAt = parseJson(token, headerEnd + 1, claimsEnd).get("exp");
+            if (expiresAt != null && !(expiresAt instanceof Number)) {
+                return TokenCheck.MALFORMED;
+            }
+            if (expiresAt != null && ((Number) expiresAt).longValue() + CLOCK_SKEW.toSeconds() < clock.instant().getEpochSecond()) {
+                return TokenCheck.EXPIRED;
+            }
+        } catch (ParseException e) {
+            return TokenCheck.MALFORMED;
+        }
+        return TokenCheck.PASSED;
+    }
+
+    private static boolean isExpiry(OAuth2Error error) {
+        return error.getDescription() != null && error.getDescription().startsWith(EXPIRED_DESCRIPTION);
+    }
+
+    private static boolean isBase64Url(String token, int start, int end) {
+        // A single character left after the last group of 4 cannot be decoded
+        if (end == start || (end - start) % 4 == 1) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Object> parseJson(String token, int start, int end) throws ParseException {
+        byte[] json = Base64.getUrlDecoder().decode(token.substring(start, end));
+        return JSONObjectUtils.parse(new String(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The rejection of a token by the pre-validation, which is expected under attack and carries no stack trace.
+     */
+    private static final class RejectedJwtException extends BadJwtException {
+
+        private static final long serialVersionUID = 1L;
+
+        RejectedJwtException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
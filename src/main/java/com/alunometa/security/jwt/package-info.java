@@ -0,0 +1,4 @@
+/**
+ * JSON Web Token decoding.
+ */
+package com.alunometa.security.jwt;
@@ -0,0 +1,211 @@
+package com.alunometa.service;
+
+import com.alunometa.domain.*; // for static metamodels
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import com.alunometa.service.criteria.AlunoCriteria;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting {@link Aluno} entities with their {@link Meta}s.
+ * <p>
+ * The alunos matching an {@link AlunoCriteria} are left joined to their metas and read through a forward-only
+ * result stream, ordered by aluno, and written to the output as they come: memory use does not depend on the number
+ * of exported rows. Rows bypass the second-level cache, and the persistence context is cleared regularly.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AlunoExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AlunoExportService.class);
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private static final String CSV_HEADER = "aluno_id,nome,email,data_nascimento,telefone,meta_id,valor,area,descricao";
+
+    private final AlunoQueryService alunoQueryService;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public AlunoExportService(AlunoQueryService alunoQueryService, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.alunoQueryService = alunoQueryService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export the alunos matching the criteria as newline delimited JSON, one aluno with its metas per line.
+     *
+     * @param criteria the criteria which the exported alunos should match.
+     * @param out the stream to write to, which is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void exportAsNdjson(AlunoCriteria criteria, OutputStream out) throws IOException {
+        LOG.debug("Request to export Alunos as NDJSON by criteria : {}", criteria);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Long[] currentAlunoId = { null };
+            scroll(criteria, (aluno, meta) -> {
+                if (!aluno.getId().equals(currentAlunoId[0])) {
+                    if (currentAlunoId[0] != null) {
+                        endAluno(generator);
+                    }
+                    startAluno(generator, aluno);
+                    currentAlunoId[0] = aluno.getId();
+                }
+                if (meta != null) {
+                    writeMeta(generator, meta);
+                }
+            });
+            if (currentAlunoId[0] != null) {
+                endAluno(generator);
+            }
+        }
+    }
+
+    /**
+     * Export the alunos matching the criteria as CSV, one line per meta, alunos without meta having empty meta columns.
+     *
+     * @param criteria the criteria which the exported alunos should match.
+     * @param out the stream to write to, which is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void exportAsCsv(AlunoCriteria criteria, OutputStream out) throws IOException {
+        LOG.debug("Request to export Alunos as CSV by criteria : {}", criteria);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        scroll(criteria, (aluno, meta) -> {
+            writeCsvValue(writer, aluno.getId(), true);
+            writeCsvValue(writer, aluno.getNome(), true);
+            writeCsvValue(writer, aluno.getEmail(), true);
+            writeCsvValue(writer, aluno.getDataNascimento(), true);
+            writeCsvValue(writer, aluno.getTelefone(), true);
+            writeCsvValue(writer, meta != null ? meta.getId() : null, true);
+            writeCsvValue(writer, meta != null ? meta.getValor() : null, true);
+            writeCsvValue(writer, meta != null ? meta.getArea() : null, true);
+            writeCsvValue(writer, meta != null ? meta.getDescricao() : null, false);
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void scroll(AlunoCriteria criteria, RowHandler handler) throws IOException {
+        Specification<Aluno> specification = alunoQueryService.createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Aluno> root = query.from(Aluno.class);
+        Join<Aluno, Meta> metas = root.join(Aluno_.metas, JoinType.LEFT);
+        query.multiselect(root, metas);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get(Aluno_.id)), cb.asc(metas.get(Meta_.id)));
+
+        long rows = 0;
+        Long previousMetaId = null;
+        try (
+            Stream<Tuple> results = entityManager
+                .createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+        ) {
+            Iterator<Tuple> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                Tuple row = iterator.next();
+                Aluno aluno = row.get(0, Aluno.class);
+                Meta meta = row.get(1, Meta.class);
+                // A join of the criteria on the metas can repeat a row
+                Long metaId = meta != null ? meta.getId() : null;
+                if (metaId == null || !Objects.equals(metaId, previousMetaId)) {
+                    handler.handle(aluno, meta);
+                }
+                previousMetaId = metaId;
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        LOG.debug("Exported {} rows", rows);
+    }
+
+    private static void startAluno(JsonGenerator generator, Aluno aluno) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", aluno.getId());
+        generator.writeStringField("nome", aluno.getNome());
+        generator.writeStringField("email", aluno.getEmail());
+        generator.writeStringField("dataNascimento", Objects.toString(aluno.getDataNascimento(), null));
+        generator.writeStringField("telefone", aluno.getTelefone());
+        generator.writeArrayFieldStart("metas");
+    }
+
+    private static void writeMeta(JsonGenerator generator, Meta meta) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", meta.getId());
+        generator.writeNumberField("valor", meta.getValor());
+        generator.writeStringField("area", Objects.toString(meta.getArea(), null));
+        generator.writeStringField("descricao", meta.getDescricao());
+        generator.writeEndObject();
+    }
+
+    private static void endAluno(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeCsvValue(Writer writer, Object value, boolean separator) throws IOException {
+        if (value != null) {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        if (separator) {
+            writer.write(',');
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(Aluno aluno, Meta meta) throws IOException;
+    }
+}
@@ -5,10 +5,14 @@ import com.alunometa.domain.Aluno;
 import com.alunometa.repository.AlunoRepository;
 import com.alunometa.service.criteria.AlunoCriteria;
 import jakarta.persistence.criteria.JoinType;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,6 +49,52 @@ public class AlunoQueryService extends QueryService<Aluno> {
         return alunoRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link Window} of {@link Aluno} which matches the criteria from the database, starting after the given
+     * keyset position. Unlike {@link #findByCriteria(AlunoCriteria, Pageable)}, no offset nor count query is issued.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position The keyset of the last entity of the previous window.
+     * @param sort The sort, to which the entity id is appended to make it unique.
+     * @param limit The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Aluno> findByCriteria(AlunoCriteria criteria, KeysetScrollPosition position, Sort sort, int limit) {
+        LOG.debug("find by criteria : {}, position: {}, sort: {}, limit: {}", criteria, position, sort, limit);
+        final Specification<Aluno> specification = createSpecification(criteria);
+        return alunoRepository.findBy(specification, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    /**
+     * Return a {@link Page} of {@link Aluno} which matches the criteria from the database, with their metas loaded by
+     * a single additional query whatever the page size.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Aluno> findByCriteriaWithMetas(AlunoCriteria criteria, Pageable page) {
+        Page<Aluno> result = findByCriteria(criteria, page);
+        fetchMetas(result.getContent());
+        return result;
+    }
+
+    /**
+     * Return a {@link Window} of {@link Aluno} which matches the criteria from the database, starting after the given
+     * keyset position, with their metas loaded by a single additional query whatever the window size.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position The keyset of the last entity of the previous window.
+     * @param sort The sort, to which the entity id is appended to make it unique.
+     * @param limit The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Aluno> findByCriteriaWithMetas(AlunoCriteria criteria, KeysetScrollPosition position, Sort sort, int limit) {
+        Window<Aluno> result = findByCriteria(criteria, position, sort, limit);
+        fetchMetas(result.getContent());
+        return result;
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -57,6 +107,12 @@ public class AlunoQueryService extends QueryService<Aluno> {
         return alunoRepository.count(specification);
     }
 
+    private void fetchMetas(List<Aluno> alunos) {
+        if (!alunos.isEmpty()) {
+            alunoRepository.fetchMetas(alunos);
+        }
+    }
+
     /**
      * Function to convert {@link AlunoCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -2,10 +2,18 @@ package com.alunometa.service;
 
 import com.alunometa.domain.Aluno;
 import com.alunometa.repository.AlunoRepository;
+import com.alunometa.repository.EntityVersions;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -19,8 +27,22 @@ public class AlunoService {
 
     private final AlunoRepository alunoRepository;
 
-    public AlunoService(AlunoRepository alunoRepository) {
+    private final AlunoSummaryService alunoSummaryService;
+
+    private final EntityVersions entityVersions;
+
+    private final Validator validator;
+
+    public AlunoService(
+        AlunoRepository alunoRepository,
+        AlunoSummaryService alunoSummaryService,
+        EntityVersions entityVersions,
+        Validator validator
+    ) {
         this.alunoRepository = alunoRepository;
+        this.alunoSummaryService = alunoSummaryService;
+        this.entityVersions = entityVersions;
+        this.validator = validator;
     }
 
     /**
@@ -31,7 +53,10 @@ public class AlunoService {
      */
     public Aluno save(Aluno aluno) {
         LOG.debug("Request to save Aluno : {}", aluno);
-        return alunoRepository.save(aluno);
+        Aluno result = alunoRepository.save(aluno);
+        // A new aluno is listed with an empty summary
+        alunoSummaryService.refresh(result);
+        return result;
     }
 
     /**
@@ -42,37 +67,43 @@ public class AlunoService {
      */
     public Aluno update(Aluno aluno) {
         LOG.debug("Request to update Aluno : {}", aluno);
-        return alunoRepository.save(aluno);
+        if (aluno.getVersion() == null) {
+            // Sent by a client unaware of the versions, which overwrites the current state
+            alunoRepository.findById(aluno.getId()).map(Aluno::getVersion).ifPresent(aluno::setVersion);
+        }
+        Aluno result = alunoRepository.save(aluno);
+        // The summary lists the aluno with a copy of its columns
+        alunoSummaryService.refresh(result);
+        return result;
     }
 
     /**
-     * Partially update a aluno.
+     * Partially update a aluno, by a single statement updating its non-null fields.
      *
-     * @param aluno the entity to update partially.
-     * @return the persisted entity.
+     * @param aluno the entity to update partially, with the version it must still have or a {@code null} version.
+     * @return the persisted entity, or empty if there is no such aluno.
+     * @throws ConstraintViolationException if a non-null field is not valid.
+     * @throws ObjectOptimisticLockingFailureException if the aluno has another version.
      */
     public Optional<Aluno> partialUpdate(Aluno aluno) {
         LOG.debug("Request to partially update Aluno : {}", aluno);
+        // The fields left null are not updated, so their @NotNull constraints do not apply
+        Set<ConstraintViolation<Aluno>> violations = validator
+            .validate(aluno)
+            .stream()
+            .filter(violation -> violation.getInvalidValue() != null)
+            .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
 
-        return alunoRepository
-            .findById(aluno.getId())
-            .map(existingAluno -> {
-                if (aluno.getNome() != null) {
-                    existingAluno.setNome(aluno.getNome());
-                }
-                if (aluno.getEmail() != null) {
-                    existingAluno.setEmail(aluno.getEmail());
-                }
-                if (aluno.getDataNascimento() != null) {
-                    existingAluno.setDataNascimento(aluno.getDataNascimento());
-                }
-                if (aluno.getTelefone() != null) {
-                    existingAluno.setTelefone(aluno.getTelefone());
-                }
-
-                return existingAluno;
-            })
-            .map(alunoRepository::save);
+        Optional<Aluno> result = alunoRepository.partialUpdate(aluno);
+        // Only a failed update pays for telling a conflict from a missing aluno
+        if (result.isEmpty() && aluno.getVersion() != null && alunoRepository.existsById(aluno.getId())) {
+            throw new ObjectOptimisticLockingFailureException(Aluno.class, aluno.getId());
+        }
+        result.ifPresent(updated -> alunoSummaryService.refresh(updated));
+        return result;
     }
 
     /**
@@ -87,6 +118,29 @@ public class AlunoService {
         return alunoRepository.findById(id);
     }
 
+    /**
+     * Get the version tag of the "id" aluno, without loading it if it is in the second-level cache.
+     *
+     * @param id the id of the entity.
+     * @return the version tag.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findVersionTag(Long id) {
+        LOG.debug("Request to get the version of Aluno : {}", id);
+        return entityVersions.findVersionTag(Aluno.class, id);
+    }
+
+    /**
+     * Get the version tag of a loaded aluno.
+     *
+     * @param aluno the entity.
+     * @return the version tag.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String versionTag(Aluno aluno) {
+        return entityVersions.versionTag(aluno);
+    }
+
     /**
      * Delete the aluno by id.
      *
@@ -94,6 +148,7 @@ public class AlunoService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Aluno : {}", id);
+        alunoSummaryService.delete(id);
         alunoRepository.deleteById(id);
     }
 }
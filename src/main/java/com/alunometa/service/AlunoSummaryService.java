@@ -0,0 +1,127 @@
+package com.alunometa.service;
+
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.AlunoSummary;
+import com.alunometa.repository.AlunoSummaryRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link AlunoSummary} of each {@link Aluno}, so that the alunos can be listed with their
+ * metas by reading a single table.
+ * <p>
+ * The summary of an aluno is recomputed from its columns and metas in the transaction changing them, by
+ * {@link MetaService}, {@link AlunoService} and {@link BulkImportService}. The alunos are locked first, so that concurrent transactions
+ * compute their summaries one after the other. The alunos without a summary, created before the summaries or outside
+ * of the application, are backfilled by a periodic job.
+ */
+@Service
+@Transactional
+public class AlunoSummaryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AlunoSummaryService.class);
+
+    static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final AlunoSummaryRepository alunoSummaryRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AlunoSummaryService(AlunoSummaryRepository alunoSummaryRepository, PlatformTransactionManager transactionManager) {
+        this.alunoSummaryRepository = alunoSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Recompute the summaries of the given alunos, from their current metas in the transaction.
+     *
+     * @param alunos the alunos, {@code null} ones being ignored.
+     */
+    public void refresh(Aluno... alunos) {
+        refresh(Stream.of(alunos).filter(Objects::nonNull).map(Aluno::getId).filter(Objects::nonNull).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Recompute the summaries of the given alunos, from their current metas in the transaction.
+     *
+     * @param alunoIds the ids of the alunos, the missing ones being ignored.
+     */
+    public void refresh(Collection<Long> alunoIds) {
+        if (alunoIds.isEmpty()) {
+            return;
+        }
+        LOG.debug("Request to refresh AlunoSummaries : {}", alunoIds);
+        List<Long> existingAlunoIds = alunoSummaryRepository.lockAlunos(alunoIds);
+        if (!existingAlunoIds.isEmpty()) {
+            alunoSummaryRepository.refresh(existingAlunoIds);
+        }
+    }
+
+    /**
+     * Delete the summary of an aluno.
+     *
+     * @param alunoId the id of the aluno.
+     */
+    public void delete(Long alunoId) {
+        LOG.debug("Request to delete AlunoSummary : {}", alunoId);
+        alunoSummaryRepository.deleteByAlunoId(alunoId);
+    }
+
+    /**
+     * Get all the summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<AlunoSummary> findAll(Pageable pageable) {
+        LOG.debug("Request to get all AlunoSummaries");
+        return alunoSummaryRepository.findAll(pageable);
+    }
+
+    /**
+     * Get the summary of an aluno.
+     *
+     * @param alunoId the id of the aluno.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AlunoSummary> findOne(Long alunoId) {
+        LOG.debug("Request to get AlunoSummary : {}", alunoId);
+        return alunoSummaryRepository.findById(alunoId);
+    }
+
+    /**
+     * Compute the summaries of the alunos which have none, by batches committed one at a time.
+     * <p>
+     * This is scheduled to run one minute after startup, then every hour.
+     */
+    @Scheduled(initialDelay = 1, fixedDelay = 60, timeUnit = TimeUnit.MINUTES)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfill() {
+        long backfilled = 0;
+        int batch;
+        do {
+            batch = Objects.requireNonNull(transactionTemplate.execute(status -> alunoSummaryRepository.backfill(BACKFILL_BATCH_SIZE)));
+            backfilled += batch;
+        } while (batch > 0);
+        if (backfilled > 0) {
+            LOG.info("Backfilled {} AlunoSummaries", backfilled);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package com.alunometa.service;
+
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.service.dto.ImportReportDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for importing {@link Aluno} and {@link Meta} entities in bulk, from a JSON array or a CSV file.
+ * <p>
+ * Rows are read as a stream and handled in chunks: the rows of a chunk are validated, then the valid ones are inserted
+ * in a single transaction, which Hibernate sends as JDBC batches. A row which cannot be read, converted, validated or
+ * inserted is reported with its error, and does not prevent the other rows from being imported.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String ALUNO_METAS_ROLE = Aluno.class.getName() + ".metas";
+
+    private static final Set<String> ALUNO_REQUIRED_COLUMNS = Set.of("nome", "email", "data_nascimento");
+
+    private static final Set<String> META_REQUIRED_COLUMNS = Set.of("valor", "area");
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final MetaStatsService metaStatsService;
+
+    private final AlunoSummaryService alunoSummaryService;
+
+    private final EntityImport<Aluno> alunoImport = new AlunoImport();
+
+    private final EntityImport<Meta> metaImport = new MetaImport();
+
+    public BulkImportService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        MetaStatsService metaStatsService,
+        AlunoSummaryService alunoSummaryService
+    ) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.metaStatsService = metaStatsService;
+        this.alunoSummaryService = alunoSummaryService;
+    }
+
+    /**
+     * Import alunos from a JSON array, shaped like the body of {@code POST /api/alunos}.
+     *
+     * @param in the JSON array.
+     * @return the import report, rows being numbered by their position in the array.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportFileException if the input is not a JSON array.
+     */
+    public ImportReportDTO importAlunosFromJson(InputStream in) throws IOException {
+        LOG.debug("Request to import Alunos from JSON");
+        return importRows(jsonRows(in, Aluno.class), alunoImport);
+    }
+
+    /**
+     * Import alunos from a CSV file with a header line, holding the {@code nome}, {@code email},
+     * {@code data_nascimento} and optionally {@code telefone} columns.
+     *
+     * @param in the CSV file, encoded in UTF-8.
+     * @return the import report, rows being numbered by their position after the header.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportFileException if the header misses a required column.
+     */
+    public ImportReportDTO importAlunosFromCsv(InputStream in) throws IOException {
+        LOG.debug("Request to import Alunos from CSV");
+        return importRows(csvRows(in, ALUNO_REQUIRED_COLUMNS, BulkImportService::toAluno), alunoImport);
+    }
+
+    /**
+     * Import metas from a JSON array, shaped like the body of {@code POST /api/metas}.
+     *
+     * @param in the JSON array.
+     * @return the import report, rows being numbered by their position in the array.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportFileException if the input is not a JSON array.
+     */
+    public ImportReportDTO importMetasFromJson(InputStream in) throws IOException {
+        LOG.debug("Request to import Metas from JSON");
+        return importRows(jsonRows(in, Meta.class), metaImport);
+    }
+
+    /**
+     * Import metas from a CSV file with a header line, holding the {@code valor}, {@code area} and optionally
+     * {@code descricao} and {@code aluno_id} columns.
+     *
+     * @param in the CSV file, encoded in UTF-8.
+     * @return the import report, rows being numbered by their position after the header.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportFileException if the header misses a required column.
+     */
+    public ImportReportDTO importMetasFromCsv(InputStream in) throws IOException {
+        LOG.debug("Request to import Metas from CSV");
+        return importRows(csvRows(in, META_REQUIRED_COLUMNS, BulkImportService::toMeta), metaImport);
+    }
+
+    private <E> ImportReportDTO importRows(RowReader<E> reader, EntityImport<E> entityImport) {
+        ImportReportDTO report = new ImportReportDTO();
+        List<ParsedRow<E>> chunk = new ArrayList<>(CHUNK_SIZE);
+        String readError = null;
+        while (true) {
+            ParsedRow<E> row;
+            try {
+                row = reader.next();
+            } catch (IOException | InvalidImportFileException e) {
+                readError = e.getMessage();
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            report.setRows(report.getRows() + 1);
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, entityImport, report);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, entityImport, report);
+        if (readError != null) {
+            report.addError(report.getRows() + 1, "Unreadable row, the rest of the file was not imported: " + readError);
+        }
+        LOG.debug("Import done: {}", report);
+        return report;
+    }
+
+    private <E> void importChunk(List<ParsedRow<E>> chunk, EntityImport<E> entityImport, ImportReportDTO report) {
+        List<ParsedRow<E>> validRows = new ArrayList<>(chunk.size());
+        for (ParsedRow<E> row : chunk) {
+            String error = row.error != null ? row.error : validate(row.entity, entityImport);
+            if (error != null) {
+                report.addError(row.number, error);
+            } else {
+                validRows.add(row);
+            }
+        }
+        List<ParsedRow<E>> rows = entityImport.checkReferences(validRows, report);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(rows, entityImport));
+            report.setImported(report.getImported() + rows.size());
+        } catch (PersistenceException | DataAccessException e) {
+            // Find out which rows the database rejected by inserting them one at a time
+            LOG.debug("Chunk insert failed, inserting its rows one at a time: {}", e.getMessage());
+            for (ParsedRow<E> row : rows) {
+                entityImport.clearId(row.entity);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(row), entityImport));
+                    report.setImported(report.getImported() + 1);
+                } catch (PersistenceException | DataAccessException rowException) {
+                    report.addError(row.number, NestedExceptionUtils.getMostSpecificCause(rowException).getMessage());
+                }
+            }
+        }
+        entityImport.afterImport(rows.stream().map(row -> row.entity).toList());
+    }
+
+    private <E> String validate(E entity, EntityImport<E> entityImport) {
+        if (entityImport.getId(entity) != null) {
+            return "A new " + entityImport.name() + " cannot already have an ID";
+        }
+        Set<ConstraintViolation<E>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            return violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        return entityImport.check(entity);
+    }
+
+    private <E> void persist(List<ParsedRow<E>> rows, EntityImport<E> entityImport) {
+        // The imported rows are not read back, so they are kept out of the second-level cache
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        for (ParsedRow<E> row : rows) {
+            entityImport.prepare(row.entity);
+            entityManager.persist(row.entity);
+        }
+        entityManager.flush();
+        entityImport.afterPersist(rows.stream().map(row -> row.entity).toList());
+        entityManager.clear();
+    }
+
+    private <E> RowReader<E> jsonRows(InputStream in, Class<E> type) throws IOException {
+        JsonParser parser;
+        try {
+            parser = objectMapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidImportFileException("The JSON document must be an array");
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportFileException(e.getOriginalMessage());
+        }
+        long[] number = { 0 };
+        return () -> {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token == null) {
+                throw new InvalidImportFileException("Unexpected end of the JSON array");
+            }
+            number[0]++;
+            JsonNode node = objectMapper.readTree(parser);
+            try {
+                return new ParsedRow<>(number[0], objectMapper.treeToValue(node, type), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow<>(number[0], null, e.getOriginalMessage());
+            }
+        };
+    }
+
+    private <E> RowReader<E> csvRows(InputStream in, Set<String> requiredColumns, Function<Map<String, String>, E> converter)
+        throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new InvalidImportFileException("The CSV file has no header");
+        }
+        List<String> columns = header
+            .stream()
+            .map(column -> column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+            .toList();
+        if (!columns.containsAll(requiredColumns)) {
+            throw new InvalidImportFileException("The CSV header must have the columns " + requiredColumns.stream().sorted().toList());
+        }
+        long[] number = { 0 };
+        return () -> {
+            List<String> values;
+            do {
+                values = csv.readRecord();
+            } while (values != null && values.size() == 1 && values.get(0).isBlank());
+            if (values == null) {
+                return null;
+            }
+            number[0]++;
+            if (values.size() != columns.size()) {
+                return new ParsedRow<>(number[0], null, "Expected " + columns.size() + " values but found " + values.size());
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                record.put(columns.get(i), values.get(i).isEmpty() ? null : values.get(i));
+            }
+            try {
+                return new ParsedRow<>(number[0], converter.apply(record), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow<>(number[0], null, e.getMessage());
+            }
+        };
+    }
+
+    private static Aluno toAluno(Map<String, String> record) {
+        return new Aluno()
+            .nome(record.get("nome"))
+            .email(record.get("email"))
+            .dataNascimento(convert(record, "data_nascimento", LocalDate::parse))
+            .telefone(record.get("telefone"));
+    }
+
+    private static Meta toMeta(Map<String, String> record) {
+        Long alunoId = convert(record, "aluno_id", Long::valueOf);
+        return new Meta()
+            .valor(convert(record, "valor", Integer::valueOf))
+            .area(convert(record, "area", AreaDoEnem::valueOf))
+            .descricao(record.get("descricao"))
+            .aluno(alunoId != null ? new Aluno().id(alunoId) : null);
+    }
+
+    private static <T> T convert(Map<String, String> record, String column, Function<String, T> parser) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(column + ": invalid value '" + value + "'");
+        }
+    }
+
+    /**
+     * The entity read from a row, or the reason why it could not be read.
+     */
+    private static final class ParsedRow<E> {
+
+        private final long number;
+
+        private final E entity;
+
+        private final String error;
+
+        private ParsedRow(long number, E entity, String error) {
+            this.number = number;
+            this.entity = entity;
+            this.error = error;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowReader<E> {
+        /**
+         * @return the next row, or {@code null} after the last one.
+         */
+        ParsedRow<E> next() throws IOException;
+    }
+
+    /**
+     * What the import of an entity type needs beyond the bean validation and the insert.
+     */
+    private interface EntityImport<E> {
+        String name();
+
+        Long getId(E entity);
+
+        void clearId(E entity);
+
+        /**
+         * @return the reason why the entity cannot be imported, or {@code null}.
+         */
+        default String check(E entity) {
+            return null;
+        }
+
+        /**
+         * Report the rows referencing missing entities.
+         *
+         * @return the other rows.
+         */
+        default List<ParsedRow<E>> checkReferences(List<ParsedRow<E>> rows, ImportReportDTO report) {
+            return rows;
+        }
+
+        default void prepare(E entity) {}
+
+        /**
+         * Called in the transaction inserting the entities, once they are flushed.
+         */
+        default void afterPersist(List<E> entities) {}
+
+        default void afterImport(List<E> entities) {}
+    }
+
+    private final class AlunoImport implements EntityImport<Aluno> {
+
+        @Override
+        public String name() {
+            return "aluno";
+        }
+
+        @Override
+        public Long getId(Aluno aluno) {
+            return aluno.getId();
+        }
+
+        @Override
+        public void clearId(Aluno aluno) {
+            aluno.setId(null);
+        }
+
+        @Override
+        public String check(Aluno aluno) {
+            return aluno.getMetas().isEmpty() ? null : "metas: must be imported separately";
+        }
+
+        @Override
+        public void afterPersist(List<Aluno> alunos) {
+            alunoSummaryService.refresh(alunos.stream().map(Aluno::getId).toList());
+        }
+    }
+
+    private final class MetaImport implements EntityImport<Meta> {
+
+        @Override
+        public String name() {
+            return "meta";
+        }
+
+        @Override
+        public Long getId(Meta meta) {
+            return meta.getId();
+        }
+
+        @Override
+        public void clearId(Meta meta) {
+            meta.setId(null);
+        }
+
+        @Override
+        public String check(Meta meta) {
+            return meta.getAluno() != null && meta.getAluno().getId() == null ? "aluno.id: must not be null" : null;
+        }
+
+        @Override
+        public List<ParsedRow<Meta>> checkReferences(List<ParsedRow<Meta>> rows, ImportReportDTO report) {
+            Set<Long> alunoIds = alunoIds(rows.stream().map(row -> row.entity).toList());
+            if (alunoIds.isEmpty()) {
+                return rows;
+            }
+            Set<Long> existingAlunoIds = new HashSet<>(
+                entityManager
+                    .createQuery("select aluno.id from Aluno aluno where aluno.id in :ids", Long.class)
+                    .setParameter("ids", alunoIds)
+                    .getResultList()
+            );
+            List<ParsedRow<Meta>> validRows = new ArrayList<>(rows.size());
+            for (ParsedRow<Meta> row : rows) {
+                Aluno aluno = row.entity.getAluno();
+                if (aluno != null && !existingAlunoIds.contains(aluno.getId())) {
+                    report.addError(row.number, "aluno: no aluno with the ID " + aluno.getId());
+                } else {
+                    validRows.add(row);
+                }
+            }
+            return validRows;
+        }
+
+        @Override
+        public void prepare(Meta meta) {
+            if (meta.getAluno() != null) {
+                meta.setAluno(entityManager.getReference(Aluno.class, meta.getAluno().getId()));
+            }
+            // Only applied if the chunk is committed
+            metaStatsService.recordChange(null, null, meta.getArea(), meta.getValor());
+        }
+
+        @Override
+        public void afterPersist(List<Meta> metas) {
+            alunoSummaryService.refresh(alunoIds(metas));
+        }
+
+        @Override
+        public void afterImport(List<Meta> metas) {
+            // The cached metas of the alunos do not include the imported ones
+            org.hibernate.Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class);
+            alunoIds(metas).forEach(alunoId -> cache.evictCollectionData(ALUNO_METAS_ROLE, alunoId));
+        }
+
+        private Set<Long> alunoIds(List<Meta> metas) {
+            return metas.stream().map(Meta::getAluno).filter(Objects::nonNull).map(Aluno::getId).collect(Collectors.toSet());
+        }
+    }
+}
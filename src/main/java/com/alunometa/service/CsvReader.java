@@ -0,0 +1,65 @@
+package com.alunometa.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a CSV file one at a time: values are separated by commas, may be enclosed in double quotes, in
+ * which case they can hold commas, line breaks and doubled double quotes.
+ */
+class CsvReader {
+
+    private final Reader reader;
+
+    CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the values of the record, or {@code null} at the end of the file.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidImportFileException if a quoted value is not terminated.
+     */
+    List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidImportFileException("Unterminated quoted value: " + value);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        // End of the quoted value, the character following it is handled as unquoted
+                        quoted = false;
+                        continue;
+                    }
+                }
+                value.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,14 @@
+package com.alunometa.service;
+
+/**
+ * Thrown when an import file cannot be read as a whole, such as a JSON document which is not an array or a CSV file
+ * missing a required column, as opposed to a single row which cannot be imported.
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
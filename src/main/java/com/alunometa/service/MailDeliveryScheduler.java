@@ -0,0 +1,30 @@
+package com.alunometa.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the mail queue of {@link MailDeliveryService}, unless {@code application.mail.delivery-enabled} is
+ * {@code false}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.mail", name = "delivery-enabled", havingValue = "true", matchIfMissing = true)
+public class MailDeliveryScheduler {
+
+    private final MailDeliveryService mailDeliveryService;
+
+    public MailDeliveryScheduler(MailDeliveryService mailDeliveryService) {
+        this.mailDeliveryService = mailDeliveryService;
+    }
+
+    /**
+     * Send the due emails of the queue.
+     * <p>
+     * This is scheduled to run {@code application.mail.delivery-interval} after the end of the previous run.
+     */
+    @Scheduled(fixedDelayString = "${application.mail.delivery-interval:PT1S}")
+    public void deliverQueuedMails() {
+        mailDeliveryService.deliverQueuedMails();
+    }
+}
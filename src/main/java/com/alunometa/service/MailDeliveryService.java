@@ -0,0 +1,234 @@
+package com.alunometa.service;
+
+import com.alunometa.config.ApplicationProperties;
+import com.alunometa.domain.OutboundMail;
+import com.alunometa.repository.OutboundMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails queued by {@link MailService}.
+ * <p>
+ * The due emails are sent in batches, each batch over a single SMTP connection, and at most
+ * {@code application.mail.rate-per-second} emails are sent per second by each instance, whatever the interval between
+ * the deliveries. An email which could not be sent is retried
+ * with an exponential backoff, then dropped after {@code application.mail.max-attempts} attempts. The emails are
+ * claimed before being sent, so that several instances can share the queue.
+ */
+@Service
+public class MailDeliveryService {
+
+    public static final String QUEUE_SIZE_METER_NAME = "mail.queue.size";
+    public static final String QUEUE_LATENCY_METER_NAME = "mail.queue.latency";
+    public static final String DELIVERIES_METER_NAME = "mail.deliveries";
+    public static final String RESULT_DIMENSION = "result";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailDeliveryService.class);
+
+    // How long the claimed emails are hidden from the other instances, in case this one stops while sending them
+    private static final Duration CLAIM_DURATION = Duration.ofMinutes(5);
+
+    private final OutboundMailRepository outboundMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail mailProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong queueSize = new AtomicLong();
+
+    // Counted on the first delivery, then after the deliveries which changed the queue
+    private volatile boolean queueSizeCounted;
+
+    private volatile MailRateLimiter rateLimiter;
+
+    private final Timer queueLatency;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter droppedCounter;
+
+    public MailDeliveryService(
+        OutboundMailRepository outboundMailRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.mailProperties = applicationProperties.getMail();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rateLimiter = new MailRateLimiter(mailProperties.getRatePerSecond(), Clock.systemUTC());
+
+        Gauge.builder(QUEUE_SIZE_METER_NAME, queueSize, AtomicLong::get)
+            .description("Number of emails in the queue, as of the last delivery which sent some")
+            .register(meterRegistry);
+        this.queueLatency = Timer.builder(QUEUE_LATENCY_METER_NAME)
+            .description("Time between the queuing and the sending of an email")
+            .register(meterRegistry);
+        this.sentCounter = deliveriesCounter(meterRegistry, "sent");
+        this.retriedCounter = deliveriesCounter(meterRegistry, "retried");
+        this.droppedCounter = deliveriesCounter(meterRegistry, "dropped");
+    }
+
+    private static Counter deliveriesCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(DELIVERIES_METER_NAME)
+            .description("Number of attempts to send an email")
+            .tag(RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send the due emails of the queue.
+     * <p>
+     * This is run periodically by {@link MailDeliveryScheduler}.
+     */
+    public void deliverQueuedMails() {
+        boolean claimed = false;
+        int permits;
+        while ((permits = rateLimiter.acquire(mailProperties.getBatchSize())) > 0) {
+            List<OutboundMail> batch = claim(permits);
+            rateLimiter.release(permits - batch.size());
+            if (batch.isEmpty()) {
+                break;
+            }
+            send(batch);
+            claimed = true;
+        }
+        if (claimed || !queueSizeCounted) {
+            queueSize.set(outboundMailRepository.count());
+            queueSizeCounted = true;
+        }
+    }
+
+    // Visible for the tests, which control the refill of the rate limit
+    void setClock(Clock clock) {
+        this.rateLimiter = new MailRateLimiter(mailProperties.getRatePerSecond(), clock);
+    }
+
+    private List<OutboundMail> claim(int count) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboundMail> mails = outboundMailRepository.findByNextAttemptDateLessThanEqualOrderByNextAttemptDate(
+                now,
+                Limit.of(count)
+            );
+            mails.forEach(mail -> mail.setNextAttemptDate(now.plus(CLAIM_DURATION)));
+            return mails;
+        });
+    }
+
+    private void send(List<OutboundMail> batch) {
+        Map<MimeMessage, OutboundMail> messages = new LinkedHashMap<>();
+        Map<OutboundMail, Exception> failures = new IdentityHashMap<>();
+        List<OutboundMail> rejected = new ArrayList<>();
+        for (OutboundMail mail : batch) {
+            try {
+                messages.put(createMimeMessage(mail), mail);
+            } catch (MessagingException | IllegalArgumentException e) {
+                LOG.warn("Email to user '{}' could not be composed, dropping it", mail.getRecipient(), e);
+                rejected.add(mail);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            LOG.debug("Sending a batch of {} emails", messages.size());
+            try {
+                // The messages share the same connection
+                javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> failures.put(mail, e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> failures.put(messages.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> failures.put(mail, e));
+            }
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> done = new ArrayList<>();
+            for (OutboundMail mail : batch) {
+                Exception failure = failures.get(mail);
+                if (rejected.contains(mail)) {
+                    droppedCounter.increment();
+                    done.add(mail.getId());
+                } else if (failure == null) {
+                    LOG.debug("Sent email to User '{}'", mail.getRecipient());
+                    sentCounter.increment();
+                    queueLatency.record(Duration.between(mail.getCreatedDate(), now));
+                    done.add(mail.getId());
+                } else if (mail.getAttempts() + 1 >= mailProperties.getMaxAttempts()) {
+                    LOG.error(
+                        "Email could not be sent to user '{}', dropping it after {} attempts",
+                        mail.getRecipient(),
+                        mail.getAttempts() + 1,
+                        failure
+                    );
+                    droppedCounter.increment();
+                    done.add(mail.getId());
+                } else {
+                    LOG.warn("Email could not be sent to user '{}', retrying it: {}", mail.getRecipient(), failure.getMessage());
+                    retriedCounter.increment();
+                    mail.setAttempts(mail.getAttempts() + 1);
+                    mail.setNextAttemptDate(now.plus(backoff(mail.getAttempts())));
+                    mail.setLastError(StringUtils.abbreviate(String.valueOf(failure.getMessage()), 255));
+                    outboundMailRepository.save(mail);
+                }
+            }
+            outboundMailRepository.deleteAllByIdInBatch(done);
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = mailProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(mailProperties.getMaxBackoff()) < 0 ? backoff : mailProperties.getMaxBackoff();
+    }
+
+    private MimeMessage createMimeMessage(OutboundMail mail) throws MessagingException {
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+}
@@ -0,0 +1,57 @@
+package com.alunometa.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Token bucket limiting the rate at which {@link MailDeliveryService} sends the queued emails.
+ * <p>
+ * The bucket is refilled from the time elapsed since it was last used, and holds at most one second of emails: after
+ * an idle period, a full second of emails can be sent at once.
+ */
+final class MailRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final int ratePerSecond;
+
+    private final Clock clock;
+
+    private double permits;
+
+    private Instant refilledAt;
+
+    MailRateLimiter(int ratePerSecond, Clock clock) {
+        this.ratePerSecond = ratePerSecond;
+        this.clock = clock;
+        this.permits = ratePerSecond;
+        this.refilledAt = clock.instant();
+    }
+
+    /**
+     * Take the permits to send emails now.
+     *
+     * @param max the maximum number of permits to take.
+     * @return the number of permits taken, {@code 0} if no email can be sent yet.
+     */
+    synchronized int acquire(int max) {
+        Instant now = clock.instant();
+        if (now.isAfter(refilledAt)) {
+            permits = Math.min(ratePerSecond, permits + (Duration.between(refilledAt, now).toNanos() * ratePerSecond) / NANOS_PER_SECOND);
+            refilledAt = now;
+        }
+        int acquired = (int) Math.min(max, Math.floor(permits));
+        permits -= acquired;
+        return acquired;
+    }
+
+    /**
+     * Give back permits which were not used.
+     *
+     * @param unused the number of permits to give back.
+     */
+    synchronized void release(int unused) {
+        permits = Math.min(ratePerSecond, permits + unused);
+    }
+}
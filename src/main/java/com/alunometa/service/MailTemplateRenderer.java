@@ -0,0 +1,143 @@
+package com.alunometa.service;
+
+import com.alunometa.domain.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the email templates for a user.
+ * <p>
+ * A template is processed once per language, for a user whose text properties are placeholders: the output is split
+ * around the placeholders, and only the escaped properties of each user are inserted between the cached fragments.
+ * The templates must therefore only print these properties, not test or transform them. The users missing a property
+ * printed by a template, and all the users when the Thymeleaf cache is disabled, get the template processed for them.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final String PLACEHOLDER_PREFIX = "mailtemplatevariable";
+
+    /**
+     * The properties of the user substituted in the cached templates.
+     */
+    private static final List<Variable> VARIABLES = List.of(
+        new Variable(User::getLogin, User::setLogin),
+        new Variable(User::getFirstName, User::setFirstName),
+        new Variable(User::getLastName, User::setLastName),
+        new Variable(User::getEmail, User::setEmail),
+        new Variable(User::getImageUrl, User::setImageUrl),
+        new Variable(User::getActivationKey, User::setActivationKey),
+        new Variable(User::getResetKey, User::setResetKey)
+    );
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final boolean cacheEnabled;
+
+    private final Map<TemplateKey, CachedTemplate> cachedTemplates = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        JHipsterProperties jHipsterProperties,
+        SpringTemplateEngine templateEngine,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.templateEngine = templateEngine;
+        this.cacheEnabled = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Render an email template for a user, in the language of the user.
+     *
+     * @param templateName the name of the template.
+     * @param user the user.
+     * @return the rendered template.
+     */
+    public String render(String templateName, User user) {
+        if (!cacheEnabled) {
+            return process(templateName, user.getLangKey(), user);
+        }
+        CachedTemplate template = cachedTemplates.computeIfAbsent(new TemplateKey(templateName, user.getLangKey()), this::compile);
+        String rendered = template.render(user);
+        return rendered != null ? rendered : process(templateName, user.getLangKey(), user);
+    }
+
+    private CachedTemplate compile(TemplateKey key) {
+        LOG.debug("Caching email template '{}' for language '{}'", key.templateName(), key.langKey());
+        User placeholders = new User();
+        for (int i = 0; i < VARIABLES.size(); i++) {
+            VARIABLES.get(i).setter().accept(placeholders, placeholder(i));
+        }
+        String output = process(key.templateName(), key.langKey(), placeholders);
+
+        List<String> fragments = new ArrayList<>();
+        List<Variable> variables = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = output.indexOf(PLACEHOLDER_PREFIX, start)) >= 0) {
+            int end = output.indexOf('_', index);
+            fragments.add(output.substring(start, index));
+            variables.add(VARIABLES.get(Integer.parseInt(output.substring(index + PLACEHOLDER_PREFIX.length(), end))));
+            start = end + 1;
+        }
+        fragments.add(output.substring(start));
+        return new CachedTemplate(fragments.toArray(String[]::new), variables.toArray(Variable[]::new), output.length());
+    }
+
+    private String process(String templateName, String langKey, User user) {
+        Context context = new Context(Locale.forLanguageTag(langKey));
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private static String placeholder(int index) {
+        // Lower case letters, digits and an underscore, left untouched by the escaping of the template and by User.setLogin
+        return PLACEHOLDER_PREFIX + index + "_";
+    }
+
+    private record TemplateKey(String templateName, String langKey) {}
+
+    private record Variable(Function<User, String> getter, BiConsumer<User, String> setter) {}
+
+    /**
+     * A template processed for the placeholder user: its fragments surround the variables, in order.
+     */
+    private record CachedTemplate(String[] fragments, Variable[] variables, int length) {
+        /**
+         * @return the template rendered for the user, or {@code null} if a variable of the template is missing.
+         */
+        String render(User user) {
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < variables.length; i++) {
+                String value = variables[i].getter().apply(user);
+                if (value == null) {
+                    return null;
+                }
+                builder.append(fragments[i]).append(HtmlEscape.escapeHtml4Xml(value));
+            }
+            return builder.append(fragments[variables.length]).toString();
+        }
+    }
+}
@@ -7,8 +7,11 @@ import com.alunometa.service.criteria.MetaCriteria;
 import jakarta.persistence.criteria.JoinType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,6 +48,22 @@ public class MetaQueryService extends QueryService<Meta> {
         return metaRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link Window} of {@link Meta} which matches the criteria from the database, starting after the given
+     * keyset position. Unlike {@link #findByCriteria(MetaCriteria, Pageable)}, no offset nor count query is issued.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position The keyset of the last entity of the previous window.
+     * @param sort The sort, to which the entity id is appended to make it unique.
+     * @param limit The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Meta> findByCriteria(MetaCriteria criteria, KeysetScrollPosition position, Sort sort, int limit) {
+        LOG.debug("find by criteria : {}, position: {}, sort: {}, limit: {}", criteria, position, sort, limit);
+        final Specification<Meta> specification = createSpecification(criteria);
+        return metaRepository.findBy(specification, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
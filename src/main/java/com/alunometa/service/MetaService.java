@@ -1,13 +1,23 @@
 package com.alunometa.service;
 
+import com.alunometa.domain.Aluno;
 import com.alunometa.domain.Meta;
+import com.alunometa.repository.EntityVersions;
 import com.alunometa.repository.MetaRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -21,8 +31,26 @@ public class MetaService {
 
     private final MetaRepository metaRepository;
 
-    public MetaService(MetaRepository metaRepository) {
+    private final MetaStatsService metaStatsService;
+
+    private final AlunoSummaryService alunoSummaryService;
+
+    private final EntityVersions entityVersions;
+
+    private final Validator validator;
+
+    public MetaService(
+        MetaRepository metaRepository,
+        MetaStatsService metaStatsService,
+        AlunoSummaryService alunoSummaryService,
+        EntityVersions entityVersions,
+        Validator validator
+    ) {
         this.metaRepository = metaRepository;
+        this.metaStatsService = metaStatsService;
+        this.alunoSummaryService = alunoSummaryService;
+        this.entityVersions = entityVersions;
+        this.validator = validator;
     }
 
     /**
@@ -33,7 +61,10 @@ public class MetaService {
      */
     public Meta save(Meta meta) {
         LOG.debug("Request to save Meta : {}", meta);
-        return metaRepository.save(meta);
+        metaStatsService.recordChange(null, null, meta.getArea(), meta.getValor());
+        Meta result = metaRepository.save(meta);
+        alunoSummaryService.refresh(result.getAluno());
+        return result;
     }
 
     /**
@@ -44,34 +75,59 @@ public class MetaService {
      */
     public Meta update(Meta meta) {
         LOG.debug("Request to update Meta : {}", meta);
-        return metaRepository.save(meta);
+        Optional<Meta> existingMeta = metaRepository.findById(meta.getId());
+        existingMeta.ifPresent(previousMeta -> {
+            metaStatsService.recordChange(previousMeta.getArea(), previousMeta.getValor(), meta.getArea(), meta.getValor());
+            if (meta.getVersion() == null) {
+                // Sent by a client unaware of the versions, which overwrites the current state
+                meta.setVersion(previousMeta.getVersion());
+            }
+        });
+        // Read before the meta is merged into the managed one
+        Aluno previousAluno = existingMeta.map(Meta::getAluno).orElse(null);
+        Meta result = metaRepository.save(meta);
+        alunoSummaryService.refresh(previousAluno, result.getAluno());
+        return result;
     }
 
     /**
-     * Partially update a meta.
+     * Partially update a meta, by a single statement updating its non-null fields and returning their previous values
+     * for the statistics and the summary of the aluno.
      *
-     * @param meta the entity to update partially.
-     * @return the persisted entity.
+     * @param meta the entity to update partially, with the version it must still have or a {@code null} version.
+     * @return the persisted entity, or empty if there is no such meta.
+     * @throws ConstraintViolationException if a non-null field is not valid.
+     * @throws ObjectOptimisticLockingFailureException if the meta has another version.
      */
     public Optional<Meta> partialUpdate(Meta meta) {
         LOG.debug("Request to partially update Meta : {}", meta);
+        // The fields left null are not updated, so their @NotNull constraints do not apply
+        Set<ConstraintViolation<Meta>> violations = validator
+            .validate(meta)
+            .stream()
+            .filter(violation -> violation.getInvalidValue() != null)
+            .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
 
-        return metaRepository
-            .findById(meta.getId())
-            .map(existingMeta -> {
-                if (meta.getValor() != null) {
-                    existingMeta.setValor(meta.getValor());
-                }
-                if (meta.getArea() != null) {
-                    existingMeta.setArea(meta.getArea());
-                }
-                if (meta.getDescricao() != null) {
-                    existingMeta.setDescricao(meta.getDescricao());
-                }
-
-                return existingMeta;
-            })
-            .map(metaRepository::save);
+        Optional<MetaRepository.UpdatedMeta> result = metaRepository.partialUpdate(meta);
+        if (result.isEmpty()) {
+            // Only a failed update pays for telling a conflict from a missing meta
+            if (meta.getVersion() != null && metaRepository.existsById(meta.getId())) {
+                throw new ObjectOptimisticLockingFailureException(Meta.class, meta.getId());
+            }
+            return Optional.empty();
+        }
+        MetaRepository.UpdatedMeta updated = result.orElseThrow();
+        Meta updatedMeta = updated.meta();
+        if (updated.previousArea() != updatedMeta.getArea() || !updated.previousValor().equals(updatedMeta.getValor())) {
+            metaStatsService.recordChange(updated.previousArea(), updated.previousValor(), updatedMeta.getArea(), updatedMeta.getValor());
+            alunoSummaryService.refresh(updatedMeta.getAluno());
+        }
+        // Returned with its aluno, usually from the second-level cache
+        Hibernate.initialize(updatedMeta.getAluno());
+        return Optional.of(updatedMeta);
     }
 
     /**
@@ -95,6 +151,29 @@ public class MetaService {
         return metaRepository.findOneWithEagerRelationships(id);
     }
 
+    /**
+     * Get the version tag of the "id" meta, without loading it if it is in the second-level cache with its aluno.
+     *
+     * @param id the id of the entity.
+     * @return the version tag.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findVersionTag(Long id) {
+        LOG.debug("Request to get the version of Meta : {}", id);
+        return entityVersions.findVersionTag(Meta.class, id);
+    }
+
+    /**
+     * Get the version tag of a loaded meta.
+     *
+     * @param meta the entity.
+     * @return the version tag.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String versionTag(Meta meta) {
+        return entityVersions.versionTag(meta);
+    }
+
     /**
      * Delete the meta by id.
      *
@@ -102,6 +181,12 @@ public class MetaService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Meta : {}", id);
-        metaRepository.deleteById(id);
+        metaRepository
+            .findById(id)
+            .ifPresent(meta -> {
+                metaStatsService.recordChange(meta.getArea(), meta.getValor(), null, null);
+                metaRepository.delete(meta);
+                alunoSummaryService.refresh(meta.getAluno());
+            });
     }
 }
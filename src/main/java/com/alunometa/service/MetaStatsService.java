@@ -0,0 +1,348 @@
+package com.alunometa.service;
+
+import com.alunometa.domain.*; // for static metamodels
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.service.criteria.MetaCriteria;
+import com.alunometa.service.dto.MetaStatsDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service computing the statistics of the {@link Meta} valores of each {@link AreaDoEnem}.
+ * <p>
+ * As a valor is an integer between 0 and 1000, the number of metas of each area and valor is kept in memory: the
+ * statistics of all the metas are computed from these counts, in a time which does not depend on the number of metas.
+ * The counts are loaded by a SQL aggregation on first use, then updated by {@link MetaService} once the changes are
+ * committed, and reloaded periodically to take in the changes made by other instances or outside of the application.
+ * The statistics of the metas matching a {@link MetaCriteria} are computed from the same SQL aggregation.
+ * <p>
+ * A reload must neither lose nor count twice the changes committed while it runs. The committing transactions hold
+ * the read side of {@code summaryLock} from before their commit until their changes are applied, and a reload holds
+ * the write side while its database snapshot is taken: every change is then either in the snapshot, or applied after
+ * it was taken and queued to be applied again to the reloaded counts, under the write side, before they replace the
+ * current ones. The snapshot is taken on the primary database, whose commits are the ones the changes are applied
+ * after: a replica could still miss some of them.
+ */
+@Service
+public class MetaStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetaStatsService.class);
+
+    static final int MAX_VALOR = 1000;
+
+    static final int BUCKET_WIDTH = 100;
+
+    static final int[] PERCENTILES = { 25, 50, 75, 90 };
+
+    private static final MetaCriteria NO_CRITERIA = new MetaCriteria();
+
+    private final EntityManager entityManager;
+
+    private final MetaQueryService metaQueryService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate reloadTransactionTemplate;
+
+    private final ReadWriteLock summaryLock = new ReentrantReadWriteLock();
+
+    // Rather than synchronized, which would pin a virtual thread to its carrier during the aggregation
+    private final Lock reloadLock = new ReentrantLock();
+
+    private volatile Map<AreaDoEnem, AtomicLongArray> summary;
+
+    // The changes applied since the snapshot of the running reload was taken, null when no reload runs
+    private Queue<Change> reloadChanges;
+
+    public MetaStatsService(EntityManager entityManager, MetaQueryService metaQueryService, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.metaQueryService = metaQueryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Not read-only, which would route it to the replica
+        this.reloadTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.reloadTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Get the statistics of the metas matching the criteria, for each area.
+     *
+     * @param criteria the criteria which the metas should match, or {@code null} for all the metas.
+     * @return the statistics of every area, in declaration order.
+     */
+    public List<MetaStatsDTO> getStats(MetaCriteria criteria) {
+        LOG.debug("Request to get Meta stats by criteria : {}", criteria);
+        Map<AreaDoEnem, AtomicLongArray> counts = criteria == null || NO_CRITERIA.equals(criteria) ? summary() : aggregate(criteria);
+        List<MetaStatsDTO> stats = new ArrayList<>(counts.size());
+        counts.forEach((area, valorCounts) -> stats.add(computeStats(area, valorCounts)));
+        return stats;
+    }
+
+    /**
+     * Record the change of a meta, which is applied to the statistics once the current transaction commits.
+     *
+     * @param previousArea the area of the meta before the change, or {@code null} if it is created.
+     * @param previousValor the valor of the meta before the change, or {@code null} if it is created.
+     * @param area the area of the meta after the change, or {@code null} if it is deleted.
+     * @param valor the valor of the meta after the change, or {@code null} if it is deleted.
+     */
+    public void recordChange(AreaDoEnem previousArea, Integer previousValor, AreaDoEnem area, Integer valor) {
+        if (previousArea == area && (previousValor == null ? valor == null : previousValor.equals(valor))) {
+            return;
+        }
+        Change change = new Change(previousArea, previousValor, area, valor);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockChanges();
+            try {
+                applyChange(change);
+            } finally {
+                summaryLock.readLock().unlock();
+            }
+            return;
+        }
+        // A single synchronization per transaction, which a nested transaction suspends with the others
+        ChangesSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations()
+            .stream()
+            .filter(ChangesSynchronization.class::isInstance)
+            .map(ChangesSynchronization.class::cast)
+            .filter(candidate -> candidate.owner() == this)
+            .findFirst()
+            .orElseGet(() -> {
+                ChangesSynchronization created = new ChangesSynchronization();
+                TransactionSynchronizationManager.registerSynchronization(created);
+                return created;
+            });
+        synchronization.changes.add(change);
+    }
+
+    /**
+     * Reload the statistics of all the metas, if they were already loaded.
+     * <p>
+     * This is scheduled to run every 10 minutes.
+     */
+    @Scheduled(initialDelay = 10, fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void refresh() {
+        if (summary != null) {
+            LOG.debug("Reloading Meta stats");
+            reload();
+        }
+    }
+
+    private Map<AreaDoEnem, AtomicLongArray> summary() {
+        Map<AreaDoEnem, AtomicLongArray> counts = summary;
+        if (counts == null) {
+            reloadLock.lock();
+            try {
+                counts = summary;
+                if (counts == null) {
+                    LOG.debug("Loading Meta stats");
+                    counts = reload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return counts;
+    }
+
+    private Map<AreaDoEnem, AtomicLongArray> reload() {
+        reloadLock.lock();
+        try {
+            Map<AreaDoEnem, AtomicLongArray> counts = reloadTransactionTemplate.execute(status -> {
+                // Acquires the connection and begins the transaction, without taking its snapshot: a repeatable read
+                // snapshot is taken by the first query, which a show is not
+                entityManager.createNativeQuery("show transaction_isolation").getSingleResult();
+                summaryLock.writeLock().lock();
+                try {
+                    entityManager.createNativeQuery("select 1").getSingleResult();
+                    reloadChanges = new ConcurrentLinkedQueue<>();
+                } finally {
+                    summaryLock.writeLock().unlock();
+                }
+                return aggregate(NO_CRITERIA);
+            });
+            summaryLock.writeLock().lock();
+            try {
+                reloadChanges.forEach(change -> change.applyTo(counts));
+                summary = counts;
+            } finally {
+                summaryLock.writeLock().unlock();
+            }
+            return counts;
+        } finally {
+            summaryLock.writeLock().lock();
+            reloadChanges = null;
+            summaryLock.writeLock().unlock();
+            reloadLock.unlock();
+        }
+    }
+
+    private void lockChanges() {
+        // Not waiting behind a reload waiting for the commit of another transaction, which could wait for this one:
+        // the write side is held for no more than the round trip of a query on an already acquired connection, which
+        // waits for no lock of the database nor for the pool, or else without accessing the database
+        if (!summaryLock.readLock().tryLock()) {
+            summaryLock.readLock().lock();
+        }
+    }
+
+    // Called with the read side of summaryLock held
+    private void applyChange(Change change) {
+        Map<AreaDoEnem, AtomicLongArray> counts = summary;
+        // Not loaded yet, the changes will be read from the database
+        if (counts != null) {
+            change.applyTo(counts);
+        }
+        Queue<Change> changes = reloadChanges;
+        if (changes != null) {
+            changes.add(change);
+        }
+    }
+
+    private Map<AreaDoEnem, AtomicLongArray> aggregate(MetaCriteria criteria) {
+        // Joins the transaction of a reload
+        return transactionTemplate.execute(status -> {
+            Specification<Meta> specification = metaQueryService.createSpecification(criteria);
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<Meta> root = query.from(Meta.class);
+            query.multiselect(root.get(Meta_.area), root.get(Meta_.valor), cb.count(root));
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.groupBy(root.get(Meta_.area), root.get(Meta_.valor));
+
+            Map<AreaDoEnem, AtomicLongArray> counts = new EnumMap<>(AreaDoEnem.class);
+            for (AreaDoEnem area : AreaDoEnem.values()) {
+                counts.put(area, new AtomicLongArray(MAX_VALOR + 1));
+            }
+            for (Tuple row : entityManager.createQuery(query).getResultList()) {
+                counts.get(row.get(0, AreaDoEnem.class)).set(row.get(1, Integer.class), row.get(2, Long.class));
+            }
+            return counts;
+        });
+    }
+
+    private record Change(AreaDoEnem previousArea, Integer previousValor, AreaDoEnem area, Integer valor) {
+        void applyTo(Map<AreaDoEnem, AtomicLongArray> counts) {
+            if (previousArea != null && previousValor != null) {
+                counts.get(previousArea).decrementAndGet(previousValor);
+            }
+            if (area != null && valor != null) {
+                counts.get(area).incrementAndGet(valor);
+            }
+        }
+    }
+
+    /**
+     * Applies the changes of a transaction once it commits, holding the read side of {@code summaryLock} from before
+     * the commit so that no reload takes its snapshot in between.
+     */
+    private class ChangesSynchronization implements TransactionSynchronization {
+
+        private final List<Change> changes = new ArrayList<>();
+
+        private boolean locked;
+
+        MetaStatsService owner() {
+            return MetaStatsService.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lockChanges();
+            locked = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (!locked) {
+                return;
+            }
+            try {
+                if (status == STATUS_COMMITTED) {
+                    changes.forEach(MetaStatsService.this::applyChange);
+                }
+            } finally {
+                summaryLock.readLock().unlock();
+            }
+        }
+    }
+
+    static MetaStatsDTO computeStats(AreaDoEnem area, AtomicLongArray valorCounts) {
+        // Read the counts once, as they can be changed concurrently
+        long[] counts = new long[valorCounts.length()];
+        long count = 0;
+        long sum = 0;
+        for (int valor = 0; valor < counts.length; valor++) {
+            counts[valor] = valorCounts.get(valor);
+            count += counts[valor];
+            sum += counts[valor] * valor;
+        }
+
+        MetaStatsDTO stats = new MetaStatsDTO();
+        stats.setArea(area);
+        stats.setCount(count);
+        for (int from = 0; from <= MAX_VALOR - BUCKET_WIDTH; from += BUCKET_WIDTH) {
+            // The last bucket includes the maximum valor
+            int to = from + BUCKET_WIDTH < MAX_VALOR ? from + BUCKET_WIDTH - 1 : MAX_VALOR;
+            long bucketCount = 0;
+            for (int valor = from; valor <= to; valor++) {
+                bucketCount += counts[valor];
+            }
+            stats.getHistogram().add(new MetaStatsDTO.BucketDTO(from, to, bucketCount));
+        }
+        if (count == 0) {
+            return stats;
+        }
+
+        stats.setAverage((double) sum / count);
+        stats.setMin(valorAtRank(counts, 1));
+        stats.setMax(valorAtRank(counts, count));
+        for (int percentile : PERCENTILES) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            stats.getPercentiles().put("p" + percentile, valorAtRank(counts, rank));
+        }
+        return stats;
+    }
+
+    private static int valorAtRank(long[] counts, long rank) {
+        long seen = 0;
+        for (int valor = 0; valor < counts.length; valor++) {
+            seen += counts[valor];
+            if (seen >= rank) {
+                return valor;
+            }
+        }
+        return counts.length - 1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.alunometa.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk import: how many rows were read and imported, and why the others were not.
+ */
+public class ImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of row errors detailed in a report, the others only being counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long rows;
+
+    private long imported;
+
+    private long failed;
+
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowErrorDTO(row, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReportDTO{" + "rows=" + rows + ", imported=" + imported + ", failed=" + failed + "}";
+    }
+
+    /**
+     * The reason why a row, numbered from 1 in the order of the imported file, was not imported.
+     */
+    public static class RowErrorDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long row;
+
+        private String message;
+
+        public RowErrorDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowErrorDTO(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.alunometa.service.dto;
+
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A DTO representing the statistics of the {@link com.alunometa.domain.Meta} valores of an area.
+ */
+public class MetaStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private AreaDoEnem area;
+
+    private long count;
+
+    private Integer min;
+
+    private Integer max;
+
+    private Double average;
+
+    /**
+     * The nearest-rank percentiles, keyed by {@code p25}, {@code p50}...
+     */
+    private Map<String, Integer> percentiles = new LinkedHashMap<>();
+
+    private List<BucketDTO> histogram = new ArrayList<>();
+
+    public AreaDoEnem getArea() {
+        return area;
+    }
+
+    public void setArea(AreaDoEnem area) {
+        this.area = area;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Integer getMin() {
+        return min;
+    }
+
+    public void setMin(Integer min) {
+        this.min = min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public void setMax(Integer max) {
+        this.max = max;
+    }
+
+    public Double getAverage() {
+        return average;
+    }
+
+    public void setAverage(Double average) {
+        this.average = average;
+    }
+
+    public Map<String, Integer> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(Map<String, Integer> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public List<BucketDTO> getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(List<BucketDTO> histogram) {
+        this.histogram = histogram;
+    }
+
+    @Override
+    public String toString() {
+        return "MetaStatsDTO{" + "area=" + area + ", count=" + count + ", min=" + min + ", max=" + max + ", average=" + average + "}";
+    }
+
+    /**
+     * The number of valores between {@code from} and {@code to}, both included.
+     */
+    public static class BucketDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+
+        private int to;
+
+        private long count;
+
+        public BucketDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public BucketDTO(int from, int to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public void setFrom(int from) {
+            this.from = from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public void setTo(int to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
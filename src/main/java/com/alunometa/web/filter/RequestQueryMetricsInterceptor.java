@@ -0,0 +1,56 @@
+package com.alunometa.web.filter;
+
+import com.alunometa.management.RequestQueryMetrics;
+import com.alunometa.management.RequestQueryStatistics;
+import com.alunometa.web.rest.AlunoResource;
+import com.alunometa.web.rest.MetaResource;
+import com.alunometa.web.rest.UserResource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Set;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Collects the {@link RequestQueryStatistics} of the requests to the entity resources, and records them in the
+ * {@link RequestQueryMetrics}.
+ * <p>
+ * For an asynchronous request, only the work done on the thread of the request is recorded.
+ */
+public class RequestQueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    static final Set<Class<?>> INSTRUMENTED_RESOURCES = Set.of(AlunoResource.class, MetaResource.class, UserResource.class);
+
+    private final RequestQueryMetrics requestQueryMetrics;
+
+    public RequestQueryMetricsInterceptor(RequestQueryMetrics requestQueryMetrics) {
+        this.requestQueryMetrics = requestQueryMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && INSTRUMENTED_RESOURCES.contains(handlerMethod.getBeanType())) {
+            RequestQueryStatistics.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        RequestQueryStatistics statistics = RequestQueryStatistics.end();
+        if (statistics != null) {
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            requestQueryMetrics.record(request.getMethod(), uri != null ? uri.toString() : "UNKNOWN", statistics);
+        }
+    }
+}
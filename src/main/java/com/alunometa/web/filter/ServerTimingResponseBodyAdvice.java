@@ -0,0 +1,48 @@
+package com.alunometa.web.filter;
+
+import com.alunometa.management.RequestQueryStatistics;
+import com.alunometa.web.rest.AlunoResource;
+import com.alunometa.web.rest.MetaResource;
+import com.alunometa.web.rest.UserResource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@link RequestQueryStatistics} of the request so far as a {@code Server-Timing} header to the responses of
+ * the entity resources, when {@code application.instrumentation.server-timing} is set.
+ * <p>
+ * The header is added before the body is written, so it does not cover the lazy loading done while serializing it.
+ */
+@ControllerAdvice(assignableTypes = { AlunoResource.class, MetaResource.class, UserResource.class })
+@ConditionalOnProperty(prefix = "application.instrumentation", name = "server-timing", havingValue = "true")
+public class ServerTimingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().add(SERVER_TIMING_HEADER, statistics.toServerTiming());
+        }
+        return body;
+    }
+}
@@ -1,26 +1,46 @@
 package com.alunometa.web.rest;
 
 import com.alunometa.domain.Aluno;
+import com.alunometa.domain.AlunoSummary;
+import com.alunometa.domain.Meta;
 import com.alunometa.repository.AlunoRepository;
+import com.alunometa.service.AlunoExportService;
 import com.alunometa.service.AlunoQueryService;
 import com.alunometa.service.AlunoService;
+import com.alunometa.service.AlunoSummaryService;
+import com.alunometa.service.BulkImportService;
+import com.alunometa.service.InvalidImportFileException;
 import com.alunometa.service.criteria.AlunoCriteria;
+import com.alunometa.service.dto.ImportReportDTO;
 import com.alunometa.web.rest.errors.BadRequestAlertException;
+import com.alunometa.web.rest.util.ETagUtil;
+import com.alunometa.web.rest.util.KeysetPaginationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +57,10 @@ public class AlunoResource {
 
     private static final String ENTITY_NAME = "aluno";
 
+    private static final Set<String> KEYSET_SORTABLE_PROPERTIES = Set.of("id", "nome", "email", "dataNascimento");
+
+    private static final String INCLUDE_METAS = "metas";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,10 +70,30 @@ public class AlunoResource {
 
     private final AlunoQueryService alunoQueryService;
 
-    public AlunoResource(AlunoService alunoService, AlunoRepository alunoRepository, AlunoQueryService alunoQueryService) {
+    private final BulkImportService bulkImportService;
+
+    private final AlunoExportService alunoExportService;
+
+    private final AlunoSummaryService alunoSummaryService;
+
+    private final ObjectMapper objectMapper;
+
+    public AlunoResource(
+        AlunoService alunoService,
+        AlunoRepository alunoRepository,
+        AlunoQueryService alunoQueryService,
+        BulkImportService bulkImportService,
+        AlunoExportService alunoExportService,
+        AlunoSummaryService alunoSummaryService,
+        ObjectMapper objectMapper
+    ) {
         this.alunoService = alunoService;
         this.alunoRepository = alunoRepository;
         this.alunoQueryService = alunoQueryService;
+        this.bulkImportService = bulkImportService;
+        this.alunoExportService = alunoExportService;
+        this.alunoSummaryService = alunoSummaryService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -71,19 +115,65 @@ public class AlunoResource {
             .body(aluno);
     }
 
+    /**
+     * {@code POST  /alunos/import} : Create alunos in bulk from a JSON array.
+     * <p>
+     * The alunos are read as a stream and imported in chunks: the valid alunos of a chunk are inserted in one transaction,
+     * or one at a time if that fails. The invalid ones are reported, the others are imported.
+     *
+     * @param body the JSON array of the alunos to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the body is not a JSON array.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importAlunos(InputStream body) throws IOException {
+        LOG.debug("REST request to import Alunos from JSON");
+        try {
+            return ResponseEntity.ok(bulkImportService.importAlunosFromJson(body));
+        } catch (InvalidImportFileException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
+    /**
+     * {@code POST  /alunos/import} : Create alunos in bulk from a CSV file with a header line.
+     *
+     * @param body the CSV file of the alunos to create, encoded in UTF-8.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the header misses a required column.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importAlunosFromCsv(InputStream body) throws IOException {
+        LOG.debug("REST request to import Alunos from CSV");
+        try {
+            return ResponseEntity.ok(bulkImportService.importAlunosFromCsv(body));
+        } catch (InvalidImportFileException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
     /**
      * {@code PUT  /alunos/:id} : Updates an existing aluno.
+     * <p>
+     * The aluno must still have a version of the {@code If-Match} header, or else of its body when it has one.
      *
      * @param id the id of the aluno to save.
      * @param aluno the aluno to update.
+     * @param webRequest the request, with an optional {@code If-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated aluno,
      * or with status {@code 400 (Bad Request)} if the aluno is not valid,
+     * or with status {@code 409 (Conflict)} if the aluno does not have the expected version,
      * or with status {@code 500 (Internal Server Error)} if the aluno couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Aluno> updateAluno(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Aluno aluno)
-        throws URISyntaxException {
+    public ResponseEntity<Aluno> updateAluno(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Aluno aluno,
+        WebRequest webRequest
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Aluno : {}, {}", id, aluno);
         if (aluno.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -96,27 +186,34 @@ public class AlunoResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        ETagUtil.ifMatchVersion(webRequest, ENTITY_NAME, () -> alunoService.findVersionTag(id)).ifPresent(aluno::setVersion);
         aluno = alunoService.update(aluno);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, aluno.getId().toString()))
+            .eTag(ETagUtil.entityTag(alunoService.versionTag(aluno)))
             .body(aluno);
     }
 
     /**
      * {@code PATCH  /alunos/:id} : Partial updates given fields of an existing aluno, field will ignore if it is null
+     * <p>
+     * The fields are updated by a single statement, so that concurrent updates of different fields do not conflict.
+     * The aluno must still have a version of the {@code If-Match} header, or else of its body when it has one.
      *
      * @param id the id of the aluno to save.
      * @param aluno the aluno to update.
+     * @param webRequest the request, with an optional {@code If-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated aluno,
-     * or with status {@code 400 (Bad Request)} if the aluno is not valid,
-     * or with status {@code 404 (Not Found)} if the aluno is not found,
+     * or with status {@code 400 (Bad Request)} if the aluno is not valid or is not found,
+     * or with status {@code 409 (Conflict)} if the aluno does not have the expected version,
      * or with status {@code 500 (Internal Server Error)} if the aluno couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Aluno> partialUpdateAluno(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Aluno aluno
+        @NotNull @RequestBody Aluno aluno,
+        WebRequest webRequest
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Aluno partially : {}, {}", id, aluno);
         if (aluno.getId() == null) {
@@ -126,16 +223,14 @@ public class AlunoResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!alunoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Aluno> result = alunoService.partialUpdate(aluno);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, aluno.getId().toString())
-        );
+        ETagUtil.ifMatchVersion(webRequest, ENTITY_NAME, () -> alunoService.findVersionTag(id)).ifPresent(aluno::setVersion);
+        Aluno result = alunoService
+            .partialUpdate(aluno)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .eTag(ETagUtil.entityTag(alunoService.versionTag(result)))
+            .body(result);
     }
 
     /**
@@ -143,18 +238,74 @@ public class AlunoResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of alunos in body.
+     * @param include {@code metas} to return the alunos with their metas, loaded by a single query for the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of alunos in body,
+     * or with status {@code 304 (Not Modified)} if the page matches the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the include is not supported.
      */
     @GetMapping("")
     public ResponseEntity<List<Aluno>> getAllAlunos(
         AlunoCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "include", required = false) String include
     ) {
-        LOG.debug("REST request to get Alunos by criteria: {}", criteria);
+        LOG.debug("REST request to get Alunos by criteria: {}, include: {}", criteria, include);
 
-        Page<Aluno> page = alunoQueryService.findByCriteria(criteria, pageable);
+        boolean withMetas = includeMetas(include);
+        Page<Aluno> page = withMetas
+            ? alunoQueryService.findByCriteriaWithMetas(criteria, pageable)
+            : alunoQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok()
+            .headers(headers)
+            .eTag(contentTag(page.getTotalElements(), page.getContent(), withMetas))
+            .body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /alunos?after=} : get the alunos following a continuation token, without counting them.
+     * <p>
+     * The first window is requested with an empty {@code after} parameter, the following ones with the token of the
+     * {@code Link} header of the previous response, which is absent on the last window.
+     *
+     * @param after the continuation token of the previous window, empty for the first one.
+     * @param pageable the size and sort of the window, the page number is ignored.
+     * @param criteria the criteria which the requested entities should match.
+     * @param include {@code metas} to return the alunos with their metas, loaded by a single query for the window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of alunos in body,
+     * or with status {@code 304 (Not Modified)} if the window matches the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the token, the sort or the include are invalid.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<Aluno>> getAllAlunosAfter(
+        AlunoCriteria criteria,
+        @RequestParam(KeysetPaginationUtil.AFTER_PARAMETER) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "include", required = false) String include
+    ) {
+        LOG.debug("REST request to get Alunos by criteria: {}, after: {}, include: {}", criteria, after, include);
+
+        KeysetScrollPosition position = KeysetPaginationUtil.decodePosition(
+            objectMapper,
+            after,
+            pageable.getSort(),
+            Aluno.class,
+            KEYSET_SORTABLE_PROPERTIES,
+            ENTITY_NAME
+        );
+        boolean withMetas = includeMetas(include);
+        Window<Aluno> window = withMetas
+            ? alunoQueryService.findByCriteriaWithMetas(criteria, position, pageable.getSort(), pageable.getPageSize())
+            : alunoQueryService.findByCriteria(criteria, position, pageable.getSort(), pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            objectMapper,
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            window
+        );
+        return ResponseEntity.ok()
+            .headers(headers)
+            .eTag(contentTag(window.hasNext(), window.getContent(), withMetas))
+            .body(window.getContent());
     }
 
     /**
@@ -169,17 +320,94 @@ public class AlunoResource {
         return ResponseEntity.ok().body(alunoQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /alunos/summaries} : get the summaries of the metas of all the alunos.
+     * <p>
+     * Unlike {@code GET /alunos?include=metas}, the summaries are read from a single table, one row per aluno.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<AlunoSummary>> getAllAlunoSummaries(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get a page of AlunoSummaries");
+        Page<AlunoSummary> page = alunoSummaryService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /alunos/export} : export all the alunos with their metas as newline delimited JSON.
+     * <p>
+     * The body is streamed while the alunos are read, so it is sent with status {@code 200 (OK)} even if the export
+     * fails midway: the client must check that the last line is complete.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response to stream the alunos to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/export", params = "format!=csv")
+    public void exportAlunosAsNdjson(AlunoCriteria criteria, HttpServletResponse response) throws IOException {
+        LOG.debug("REST request to export Alunos as NDJSON by criteria: {}", criteria);
+        response.setContentType("application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"alunos.ndjson\"");
+        alunoExportService.exportAsNdjson(criteria, response.getOutputStream());
+    }
+
+    /**
+     * {@code GET  /alunos/export?format=csv} : export all the alunos with their metas as CSV, one line per meta.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response to stream the alunos to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/export", params = "format=csv")
+    public void exportAlunosAsCsv(AlunoCriteria criteria, HttpServletResponse response) throws IOException {
+        LOG.debug("REST request to export Alunos as CSV by criteria: {}", criteria);
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"alunos.csv\"");
+        alunoExportService.exportAsCsv(criteria, response.getOutputStream());
+    }
+
     /**
      * {@code GET  /alunos/:id} : get the "id" aluno.
      *
+     * <p>
+     * A request with an {@code If-None-Match} header is checked against the version tag of the aluno first, which is
+     * read without loading the aluno when it is cached.
+     *
      * @param id the id of the aluno to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the aluno, or with status {@code 404 (Not Found)}.
+     * @param webRequest the request, checked against the entity tag of the aluno.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the aluno,
+     * or with status {@code 304 (Not Modified)} if the aluno matches the {@code If-None-Match} header,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Aluno> getAluno(@PathVariable("id") Long id) {
+    public ResponseEntity<Aluno> getAluno(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get Aluno : {}", id);
+        if (ETagUtil.hasIfNoneMatch(webRequest)) {
+            Optional<String> versionTag = alunoService.findVersionTag(id);
+            if (versionTag.isPresent() && webRequest.checkNotModified(ETagUtil.entityTag(versionTag.orElseThrow()))) {
+                return null;
+            }
+        }
         Optional<Aluno> aluno = alunoService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(aluno);
+        HttpHeaders headers = new HttpHeaders();
+        aluno.ifPresent(found -> headers.setETag(ETagUtil.entityTag(alunoService.versionTag(found))));
+        return ResponseUtil.wrapOrNotFound(aluno, headers);
+    }
+
+    /**
+     * {@code GET  /alunos/:id/summary} : get the summary of the metas of the "id" aluno.
+     *
+     * @param id the id of the aluno whose summary to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<AlunoSummary> getAlunoSummary(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get AlunoSummary : {}", id);
+        Optional<AlunoSummary> alunoSummary = alunoSummaryService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(alunoSummary);
     }
 
     /**
@@ -196,4 +424,35 @@ public class AlunoResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private String contentTag(Object size, List<Aluno> alunos, boolean withMetas) {
+        return ETagUtil.contentTag(
+            Stream.concat(
+                Stream.of(size, withMetas),
+                alunos
+                    .stream()
+                    .flatMap(aluno ->
+                        Stream.concat(
+                            Stream.of(aluno.getId() + ":" + alunoService.versionTag(aluno)),
+                            withMetas ? metaVersions(aluno) : Stream.empty()
+                        )
+                    )
+            )
+        );
+    }
+
+    private static Stream<String> metaVersions(Aluno aluno) {
+        // The metas are a set, in no particular order
+        return aluno.getMetas().stream().sorted(Comparator.comparing(Meta::getId)).map(meta -> meta.getId() + ":" + meta.getVersion());
+    }
+
+    private boolean includeMetas(String include) {
+        if (include == null || include.isEmpty()) {
+            return false;
+        }
+        if (!INCLUDE_METAS.equals(include)) {
+            throw new BadRequestAlertException("Only the metas can be included", ENTITY_NAME, "includenotsupported");
+        }
+        return true;
+    }
 }
@@ -3,30 +3,36 @@ package com.alunometa.web.rest;
 import static com.alunometa.security.SecurityUtils.AUTHORITIES_KEY;
 import static com.alunometa.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.alunometa.management.SecurityMetersService;
 import com.alunometa.web.rest.vm.LoginVM;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller to authenticate users.
@@ -47,24 +53,57 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final Executor passwordVerificationExecutor;
+
+    private final SecurityMetersService securityMetersService;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        @Qualifier("passwordVerificationExecutor") Executor passwordVerificationExecutor,
+        SecurityMetersService securityMetersService
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
+        this.securityMetersService = securityMetersService;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate a user, and return a token.
+     * <p>
+     * The password is verified on a dedicated executor, which releases the servlet thread meanwhile.
+     *
+     * @param loginVM the credentials of the user.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the token in body, or with status
+     * {@code 503 (Service Unavailable)} if too many logins are waiting for their verification.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public CompletableFuture<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody LoginVM loginVM) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = this.createToken(authentication, loginVM.isRememberMe());
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        AuthenticationManager authenticationManager = authenticationManagerBuilder.getObject();
+        CompletableFuture<Authentication> authentication;
+        try {
+            authentication = CompletableFuture.supplyAsync(
+                () -> authenticationManager.authenticate(authenticationToken),
+                passwordVerificationExecutor
+            );
+        } catch (TaskRejectedException e) {
+            // Counted rather than logged, as the rejections come by bursts
+            securityMetersService.trackLoginRejected();
+            LOG.debug("Login rejected, too many logins in progress");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress");
+        }
+        return authentication.thenApply(authenticated -> {
+            String jwt = this.createToken(authenticated, loginVM.isRememberMe());
+            HttpHeaders httpHeaders = new HttpHeaders();
+            httpHeaders.setBearerAuth(jwt);
+            return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        });
     }
 
     /**
@@ -2,25 +2,41 @@ package com.alunometa.web.rest;
 
 import com.alunometa.domain.Meta;
 import com.alunometa.repository.MetaRepository;
+import com.alunometa.service.BulkImportService;
+import com.alunometa.service.InvalidImportFileException;
 import com.alunometa.service.MetaQueryService;
 import com.alunometa.service.MetaService;
+import com.alunometa.service.MetaStatsService;
 import com.alunometa.service.criteria.MetaCriteria;
+import com.alunometa.service.dto.ImportReportDTO;
+import com.alunometa.service.dto.MetaStatsDTO;
 import com.alunometa.web.rest.errors.BadRequestAlertException;
+import com.alunometa.web.rest.util.ETagUtil;
+import com.alunometa.web.rest.util.KeysetPaginationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +53,8 @@ public class MetaResource {
 
     private static final String ENTITY_NAME = "meta";
 
+    private static final Set<String> KEYSET_SORTABLE_PROPERTIES = Set.of("id", "valor", "area");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,10 +64,26 @@ public class MetaResource {
 
     private final MetaQueryService metaQueryService;
 
-    public MetaResource(MetaService metaService, MetaRepository metaRepository, MetaQueryService metaQueryService) {
+    private final BulkImportService bulkImportService;
+
+    private final MetaStatsService metaStatsService;
+
+    private final ObjectMapper objectMapper;
+
+    public MetaResource(
+        MetaService metaService,
+        MetaRepository metaRepository,
+        MetaQueryService metaQueryService,
+        BulkImportService bulkImportService,
+        MetaStatsService metaStatsService,
+        ObjectMapper objectMapper
+    ) {
         this.metaService = metaService;
         this.metaRepository = metaRepository;
         this.metaQueryService = metaQueryService;
+        this.bulkImportService = bulkImportService;
+        this.metaStatsService = metaStatsService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -71,19 +105,65 @@ public class MetaResource {
             .body(meta);
     }
 
+    /**
+     * {@code POST  /metas/import} : Create metas in bulk from a JSON array.
+     * <p>
+     * The metas are read as a stream and imported in chunks: the valid metas of a chunk are inserted in one transaction,
+     * or one at a time if that fails. The invalid ones are reported, the others are imported.
+     *
+     * @param body the JSON array of the metas to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the body is not a JSON array.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importMetas(InputStream body) throws IOException {
+        LOG.debug("REST request to import Metas from JSON");
+        try {
+            return ResponseEntity.ok(bulkImportService.importMetasFromJson(body));
+        } catch (InvalidImportFileException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
+    /**
+     * {@code POST  /metas/import} : Create metas in bulk from a CSV file with a header line.
+     *
+     * @param body the CSV file of the metas to create, encoded in UTF-8.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the header misses a required column.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importMetasFromCsv(InputStream body) throws IOException {
+        LOG.debug("REST request to import Metas from CSV");
+        try {
+            return ResponseEntity.ok(bulkImportService.importMetasFromCsv(body));
+        } catch (InvalidImportFileException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
     /**
      * {@code PUT  /metas/:id} : Updates an existing meta.
+     * <p>
+     * The meta must still have a version of the {@code If-Match} header, or else of its body when it has one.
      *
      * @param id the id of the meta to save.
      * @param meta the meta to update.
+     * @param webRequest the request, with an optional {@code If-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated meta,
      * or with status {@code 400 (Bad Request)} if the meta is not valid,
+     * or with status {@code 409 (Conflict)} if the meta does not have the expected version,
      * or with status {@code 500 (Internal Server Error)} if the meta couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Meta> updateMeta(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Meta meta)
-        throws URISyntaxException {
+    public ResponseEntity<Meta> updateMeta(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Meta meta,
+        WebRequest webRequest
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Meta : {}, {}", id, meta);
         if (meta.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -96,27 +176,34 @@ public class MetaResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        ETagUtil.ifMatchVersion(webRequest, ENTITY_NAME, () -> metaService.findVersionTag(id)).ifPresent(meta::setVersion);
         meta = metaService.update(meta);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, meta.getId().toString()))
+            .eTag(ETagUtil.entityTag(metaService.versionTag(meta)))
             .body(meta);
     }
 
     /**
      * {@code PATCH  /metas/:id} : Partial updates given fields of an existing meta, field will ignore if it is null
+     * <p>
+     * The fields are updated by a single statement, so that concurrent updates of different fields do not conflict.
+     * The meta must still have a version of the {@code If-Match} header, or else of its body when it has one.
      *
      * @param id the id of the meta to save.
      * @param meta the meta to update.
+     * @param webRequest the request, with an optional {@code If-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated meta,
-     * or with status {@code 400 (Bad Request)} if the meta is not valid,
-     * or with status {@code 404 (Not Found)} if the meta is not found,
+     * or with status {@code 400 (Bad Request)} if the meta is not valid or is not found,
+     * or with status {@code 409 (Conflict)} if the meta does not have the expected version,
      * or with status {@code 500 (Internal Server Error)} if the meta couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Meta> partialUpdateMeta(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Meta meta
+        @NotNull @RequestBody Meta meta,
+        WebRequest webRequest
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Meta partially : {}, {}", id, meta);
         if (meta.getId() == null) {
@@ -126,16 +213,14 @@ public class MetaResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!metaRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Meta> result = metaService.partialUpdate(meta);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, meta.getId().toString())
-        );
+        ETagUtil.ifMatchVersion(webRequest, ENTITY_NAME, () -> metaService.findVersionTag(id)).ifPresent(meta::setVersion);
+        Meta result = metaService
+            .partialUpdate(meta)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .eTag(ETagUtil.entityTag(metaService.versionTag(result)))
+            .body(result);
     }
 
     /**
@@ -143,7 +228,8 @@ public class MetaResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of metas in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of metas in body,
+     * or with status {@code 304 (Not Modified)} if the page matches the {@code If-None-Match} header.
      */
     @GetMapping("")
     public ResponseEntity<List<Meta>> getAllMetas(
@@ -154,7 +240,45 @@ public class MetaResource {
 
         Page<Meta> page = metaQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).eTag(contentTag(page.getTotalElements(), page.getContent())).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /metas?after=} : get the metas following a continuation token, without counting them.
+     * <p>
+     * The first window is requested with an empty {@code after} parameter, the following ones with the token of the
+     * {@code Link} header of the previous response, which is absent on the last window.
+     *
+     * @param after the continuation token of the previous window, empty for the first one.
+     * @param pageable the size and sort of the window, the page number is ignored.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of metas in body,
+     * or with status {@code 304 (Not Modified)} if the window matches the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the token or the sort are invalid.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<Meta>> getAllMetasAfter(
+        MetaCriteria criteria,
+        @RequestParam(KeysetPaginationUtil.AFTER_PARAMETER) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get Metas by criteria: {}, after: {}", criteria, after);
+
+        KeysetScrollPosition position = KeysetPaginationUtil.decodePosition(
+            objectMapper,
+            after,
+            pageable.getSort(),
+            Meta.class,
+            KEYSET_SORTABLE_PROPERTIES,
+            ENTITY_NAME
+        );
+        Window<Meta> window = metaQueryService.findByCriteria(criteria, position, pageable.getSort(), pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            objectMapper,
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            window
+        );
+        return ResponseEntity.ok().headers(headers).eTag(contentTag(window.hasNext(), window.getContent())).body(window.getContent());
     }
 
     /**
@@ -169,17 +293,46 @@ public class MetaResource {
         return ResponseEntity.ok().body(metaQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /metas/stats} : get the statistics of the metas valores by area.
+     * <p>
+     * Without criteria, the statistics are computed from an in-memory summary of all the metas.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of every area in body.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<MetaStatsDTO>> getMetaStats(MetaCriteria criteria) {
+        LOG.debug("REST request to get Meta stats by criteria: {}", criteria);
+        return ResponseEntity.ok().body(metaStatsService.getStats(criteria));
+    }
+
     /**
      * {@code GET  /metas/:id} : get the "id" meta.
      *
+     * <p>
+     * A request with an {@code If-None-Match} header is checked against the version tag of the meta first, which is
+     * read without loading the meta and its aluno when they are cached.
+     *
      * @param id the id of the meta to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the meta, or with status {@code 404 (Not Found)}.
+     * @param webRequest the request, checked against the entity tag of the meta.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the meta,
+     * or with status {@code 304 (Not Modified)} if the meta matches the {@code If-None-Match} header,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Meta> getMeta(@PathVariable("id") Long id) {
+    public ResponseEntity<Meta> getMeta(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get Meta : {}", id);
+        if (ETagUtil.hasIfNoneMatch(webRequest)) {
+            Optional<String> versionTag = metaService.findVersionTag(id);
+            if (versionTag.isPresent() && webRequest.checkNotModified(ETagUtil.entityTag(versionTag.orElseThrow()))) {
+                return null;
+            }
+        }
         Optional<Meta> meta = metaService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(meta);
+        HttpHeaders headers = new HttpHeaders();
+        meta.ifPresent(found -> headers.setETag(ETagUtil.entityTag(metaService.versionTag(found))));
+        return ResponseUtil.wrapOrNotFound(meta, headers);
     }
 
     /**
@@ -196,4 +349,10 @@ public class MetaResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private String contentTag(Object size, List<Meta> metas) {
+        return ETagUtil.contentTag(
+            Stream.concat(Stream.of(size), metas.stream().map(meta -> meta.getId() + ":" + metaService.versionTag(meta)))
+        );
+    }
 }
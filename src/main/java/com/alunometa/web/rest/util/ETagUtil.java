@@ -0,0 +1,143 @@
+package com.alunometa.web.rest.util;
+
+import com.alunometa.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Utility class for the HTTP entity tags of the REST resources.
+ * <p>
+ * A single entity is tagged by a strong tag made of its version tag, which can be checked before the entity is loaded.
+ * A list is tagged by a weak tag, hashing the ids and version tags of its entities with everything else its response
+ * depends on, such as the total count of a page: Spring MVC answers a matching {@code If-None-Match} with
+ * {@code 304 (Not Modified)} without serialising the list.
+ * <p>
+ * An update is made conditional by an {@code If-Match} header listing strong tags of the entity, whose leading version
+ * is the version the entity must still have: the versions of the referenced entities are ignored, as their changes do
+ * not conflict with the update. As in the strong comparison of RFC 9110, a weak tag or a tag of another format never
+ * matches, and the update then conflicts.
+ */
+public final class ETagUtil {
+
+    // 128 bits of the hash are enough to tell the lists of the same URL apart
+    private static final int CONTENT_TAG_BYTES = 16;
+
+    // An element of the If-Match list, as defined by RFC 9110, which may be empty
+    private static final Pattern ENTITY_TAG = Pattern.compile("\\s*(?:(W/)?\"([\\x21\\x23-\\x7e\\x80-\\xff]*)\")?\\s*");
+
+    private static final Pattern VERSION_TAG = Pattern.compile("(\\d+)(?:-\\d*)*");
+
+    private static final String ANY_ENTITY_TAG = "*";
+
+    // No entity has a negative version
+    private static final long NO_VERSION = -1;
+
+    private ETagUtil() {}
+
+    /**
+     * Check whether the request is conditional on the entity tag of the resource.
+     *
+     * @param webRequest the request.
+     * @return {@code true} if the request has an {@code If-None-Match} header.
+     */
+    public static boolean hasIfNoneMatch(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Get the version expected by the {@code If-Match} header of an update.
+     * <p>
+     * When the header lists the tags of several versions, the current version tag of the entity is read to pick the one
+     * to expect. When none of its tags can match, a version which no entity has is expected, so that the update of an
+     * existing entity conflicts.
+     *
+     * @param webRequest the request.
+     * @param entityName the entity name, for error reporting.
+     * @param currentVersionTag supplies the current version tag of the entity, or empty if there is no such entity.
+     * @return the expected version, or empty if the request has no {@code If-Match} header or accepts any version.
+     * @throws BadRequestAlertException if the header is not a list of entity tags, or {@code *}.
+     */
+    public static Optional<Long> ifMatchVersion(WebRequest webRequest, String entityName, Supplier<Optional<String>> currentVersionTag) {
+        String[] ifMatchValues = webRequest.getHeaderValues(HttpHeaders.IF_MATCH);
+        if (ifMatchValues == null) {
+            return Optional.empty();
+        }
+        // Repeated headers make a single list
+        String ifMatch = String.join(",", ifMatchValues);
+        if (ANY_ENTITY_TAG.equals(ifMatch.trim())) {
+            return Optional.empty();
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String element : ifMatch.split(",", -1)) {
+            Matcher matcher = ENTITY_TAG.matcher(element);
+            if (!matcher.matches()) {
+                throw new BadRequestAlertException("Invalid If-Match header", entityName, "ifmatchinvalid");
+            }
+            if (matcher.group(2) != null && matcher.group(1) == null) {
+                version(matcher.group(2)).ifPresent(versions::add);
+            }
+        }
+        if (versions.size() > 1) {
+            return currentVersionTag
+                .get()
+                .map(ETagUtil::version)
+                .map(current -> current.filter(versions::contains).orElse(NO_VERSION))
+                .or(() -> Optional.of(versions.iterator().next()));
+        }
+        return Optional.of(versions.isEmpty() ? NO_VERSION : versions.iterator().next());
+    }
+
+    private static Optional<Long> version(String versionTag) {
+        Matcher matcher = VERSION_TAG.matcher(versionTag);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(matcher.group(1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get the strong entity tag of an entity.
+     *
+     * @param versionTag the version tag of the entity.
+     * @return the entity tag.
+     */
+    public static String entityTag(String versionTag) {
+        return "\"" + versionTag + "\"";
+    }
+
+    /**
+     * Get the weak entity tag of a list.
+     *
+     * @param parts the values the response depends on, in order.
+     * @return the entity tag.
+     */
+    public static String contentTag(Stream<?> parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        parts.forEach(part -> {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+        byte[] hash = digest.digest();
+        return "W/\"" + HexFormat.of().formatHex(hash, 0, CONTENT_TAG_BYTES) + "\"";
+    }
+}
@@ -0,0 +1,119 @@
+package com.alunometa.web.rest.util;
+
+import com.alunometa.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination.
+ * <p>
+ * The position of the last returned entity is handed to the client as an opaque continuation token: the Base64 encoded
+ * JSON of its sort keys. The client sends it back in the {@code after} request parameter, with the same {@code sort},
+ * to get the next window. Sorting is restricted to non-nullable properties, as rows holding a {@code null} key would
+ * never be selected by the keyset predicate.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {};
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Decode the position to scroll from.
+     *
+     * @param objectMapper the mapper used to convert the keys to the entity property types.
+     * @param token the continuation token, empty for the first window.
+     * @param sort the requested sort, which must be the same as the one used to get the token.
+     * @param entityClass the scrolled entity.
+     * @param sortableProperties the properties which can be used in the sort.
+     * @param entityName the entity name, for error reporting.
+     * @return the position to scroll from.
+     * @throws BadRequestAlertException if the sort or the token are invalid.
+     */
+    public static KeysetScrollPosition decodePosition(
+        ObjectMapper objectMapper,
+        String token,
+        Sort sort,
+        Class<?> entityClass,
+        Set<String> sortableProperties,
+        String entityName
+    ) {
+        Set<String> expectedKeys = new HashSet<>();
+        expectedKeys.add(ID_PROPERTY);
+        for (Sort.Order order : sort) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new BadRequestAlertException(
+                    "Sorting by " + order.getProperty() + " is not supported with keyset pagination",
+                    entityName,
+                    "sortnotsupported"
+                );
+            }
+            expectedKeys.add(order.getProperty());
+        }
+        if (!StringUtils.hasText(token)) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            Map<String, Object> keys = objectMapper.readValue(Base64.getUrlDecoder().decode(token), KEYS_TYPE);
+            if (!keys.keySet().equals(expectedKeys)) {
+                throw new IllegalArgumentException("Token keys " + keys.keySet() + " do not match the sort");
+            }
+            keys.replaceAll((property, value) -> {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityClass, property);
+                return value == null || descriptor == null ? value : objectMapper.convertValue(value, descriptor.getPropertyType());
+            });
+            return ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid continuation token", entityName, "tokeninvalid");
+        }
+    }
+
+    /**
+     * Generate the pagination headers of a keyset window: a {@code Link} header to the next window, if any.
+     *
+     * @param objectMapper the mapper used to encode the continuation token.
+     * @param uriBuilder the current request uri builder.
+     * @param window the returned window.
+     * @return the http headers.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(ObjectMapper objectMapper, UriComponentsBuilder uriBuilder, Window<?> window) {
+        HttpHeaders headers = new HttpHeaders();
+        if (window.hasNext() && !window.isEmpty()) {
+            String token = encodePosition(objectMapper, (KeysetScrollPosition) window.positionAt(window.size() - 1));
+            String next = uriBuilder.replaceQueryParam(AFTER_PARAMETER, token).toUriString();
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, next, "next"));
+        }
+        return headers;
+    }
+
+    private static String encodePosition(ObjectMapper objectMapper, KeysetScrollPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(position.getKeys()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the keyset position", e);
+        }
+    }
+}
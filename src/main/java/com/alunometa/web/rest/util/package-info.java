@@ -0,0 +1,4 @@
+/**
+ * Utilities for the Rest layer.
+ */
+package com.alunometa.web.rest.util;
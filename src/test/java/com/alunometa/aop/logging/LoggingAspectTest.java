@@ -0,0 +1,115 @@
+package com.alunometa.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Unit tests for {@link LoggingAspect}.
+ */
+class LoggingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        loggingAspect = new LoggingAspect(new MockEnvironment(), meterRegistry, 1.0);
+    }
+
+    @Test
+    void testCallsAreTimedByClassMethodAndOutcome() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("greet");
+        doReturn("hello").when(joinPoint).proceed();
+
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("hello");
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("hello");
+
+        assertThat(timer("greet", "success").count()).isEqualTo(2);
+        assertThat(timer("greet", "error").count()).isZero();
+    }
+
+    @Test
+    void testExceptionsAreTimedAndRethrown() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("fail");
+        doThrow(new IllegalArgumentException("invalid")).when(joinPoint).proceed();
+
+        assertThatThrownBy(() -> loggingAspect.logAround(joinPoint)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(timer("fail", "error").count()).isEqualTo(1);
+        assertThat(timer("fail", "success").count()).isZero();
+    }
+
+    @Test
+    void testOverloadsAreTimedApart() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("greet");
+        ProceedingJoinPoint overloadJoinPoint = joinPoint("greet", String.class, int.class);
+        doReturn("hello").when(joinPoint).proceed();
+        doReturn("hello").when(overloadJoinPoint).proceed();
+
+        loggingAspect.logAround(joinPoint);
+        loggingAspect.logAround(overloadJoinPoint);
+        loggingAspect.logAround(overloadJoinPoint);
+
+        assertThat(timer("greet", "String", "success").count()).isEqualTo(1);
+        assertThat(timer("greet", "String,int", "success").count()).isEqualTo(2);
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timer(method, "String", outcome);
+    }
+
+    private Timer timer(String method, String parameters, String outcome) {
+        return meterRegistry
+            .get(LoggingAspect.DURATION_METER_NAME)
+            .tag(LoggingAspect.CLASS_DIMENSION, TracedService.class.getSimpleName())
+            .tag(LoggingAspect.METHOD_DIMENSION, method)
+            .tag(LoggingAspect.PARAMETERS_DIMENSION, parameters)
+            .tag(LoggingAspect.OUTCOME_DIMENSION, outcome)
+            .timer();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName) throws NoSuchMethodException {
+        return joinPoint(methodName, String.class);
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = TracedService.class.getMethod(methodName, parameterTypes);
+        MethodSignature signature = mock(MethodSignature.class);
+        doReturn(method).when(signature).getMethod();
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        doReturn(new TracedService()).when(joinPoint).getTarget();
+        doReturn(signature).when(joinPoint).getSignature();
+        doReturn(new Object[] { "world" }).when(joinPoint).getArgs();
+        return joinPoint;
+    }
+
+    static class TracedService {
+
+        public String greet(String name) {
+            return "hello";
+        }
+
+        public String greet(String name, int times) {
+            return "hello";
+        }
+
+        public String fail(String name) {
+            throw new IllegalArgumentException(name);
+        }
+    }
+}
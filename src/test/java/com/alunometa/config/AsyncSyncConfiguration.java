@@ -12,4 +12,9 @@ public class AsyncSyncConfiguration {
     public Executor taskExecutor() {
         return new SyncTaskExecutor();
     }
+
+    @Bean(name = "passwordVerificationExecutor")
+    public Executor passwordVerificationExecutor() {
+        return new SyncTaskExecutor();
+    }
 }
@@ -0,0 +1,91 @@
+package com.alunometa.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link ReplicaRoutingDataSource}, with a replica pool on the test database which names its
+ * connections {@code replica}.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.datasource.replica.jdbc-url=${spring.datasource.url}",
+        "spring.datasource.replica.username=${spring.datasource.username}",
+        "spring.datasource.replica.password=${spring.datasource.password}",
+        "spring.datasource.replica.pool-name=Replica",
+        "spring.datasource.replica.auto-commit=false",
+        "spring.datasource.replica.maximum-pool-size=1",
+        "spring.datasource.replica.connection-init-sql=set application_name = 'replica'",
+        "application.datasource.read-your-writes-window=1m",
+    }
+)
+class ReplicaRoutingIT {
+
+    private static final String REPLICA = "replica";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readWriteTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    public void init() {
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void assertThatReadOnlyTransactionsUseTheReplica() {
+        assertThat(applicationName(readOnlyTransaction)).isEqualTo(REPLICA);
+        assertThat(applicationName(readWriteTransaction)).isNotEqualTo(REPLICA);
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "Replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "Hikari").gauge()).isNotNull();
+    }
+
+    @Test
+    void assertThatUsersReadTheirWritesFromThePrimary() {
+        authenticate("writer");
+        applicationName(readWriteTransaction);
+        assertThat(applicationName(readOnlyTransaction)).isNotEqualTo(REPLICA);
+
+        authenticate("reader");
+        assertThat(applicationName(readOnlyTransaction)).isEqualTo(REPLICA);
+    }
+
+    private String applicationName(TransactionTemplate transaction) {
+        return transaction.execute(status ->
+            (String) entityManager.createNativeQuery("select current_setting('application_name')").getSingleResult()
+        );
+    }
+
+    private static void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, login));
+    }
+}
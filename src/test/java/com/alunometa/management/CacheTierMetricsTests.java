@@ -0,0 +1,83 @@
+package com.alunometa.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.impl.serialization.CompactJavaSerializer;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheTierMetricsTests {
+
+    private static final String CACHE_NAME = "tiered";
+
+    private MeterRegistry meterRegistry;
+
+    private CacheManager cacheManager;
+
+    private Cache<Object, Object> cache;
+
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    public void setup() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        cacheManager = Caching.getCachingProvider().getCacheManager();
+        statisticsService = CacheTierMetrics.startStatisticsService(cacheManager);
+        cache = cacheManager.createCache(
+            CACHE_NAME,
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                    Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.heap(10).offheap(1, MemoryUnit.MB)
+                )
+                    .withKeySerializer(new CompactJavaSerializer<>(classLoader))
+                    .withValueSerializer(new CompactJavaSerializer<>(classLoader))
+            )
+        );
+        meterRegistry = new SimpleMeterRegistry();
+        new CacheTierMetrics(cacheManager, statisticsService).bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    public void teardown() {
+        cacheManager.destroyCache(CACHE_NAME);
+        statisticsService.stop();
+    }
+
+    @Test
+    void testMetersAreCreatedForEachTier() {
+        assertThat(meterRegistry.find(CacheTierMetrics.TIER_SIZE_METER_NAME).tag("cache", CACHE_NAME).gauges()).hasSize(2);
+        meterRegistry.get(CacheTierMetrics.TIER_SIZE_METER_NAME).tag("tier", "OnHeap").gauge();
+        meterRegistry.get(CacheTierMetrics.TIER_OCCUPIED_BYTES_METER_NAME).tag("tier", "OffHeap").gauge();
+        assertThat(meterRegistry.find(CacheTierMetrics.TIER_OCCUPIED_BYTES_METER_NAME).tag("tier", "OnHeap").gauge()).isNull();
+    }
+
+    @Test
+    void testTierMetersFollowCacheActivity() {
+        for (long i = 0; i < 100; i++) {
+            cache.put(i, "value" + i);
+        }
+        for (long i = 0; i < 100; i++) {
+            cache.get(i);
+        }
+
+        assertThat(meterRegistry.get(CacheTierMetrics.TIER_SIZE_METER_NAME).tag("tier", "OnHeap").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get(CacheTierMetrics.TIER_EVICTIONS_METER_NAME).tag("tier", "OnHeap").functionCounter().count()).isPositive();
+        assertThat(
+            meterRegistry.get(CacheTierMetrics.TIER_GETS_METER_NAME).tag("tier", "OffHeap").tag("result", "hit").functionCounter().count()
+        ).isPositive();
+        assertThat(meterRegistry.get(CacheTierMetrics.TIER_OCCUPIED_BYTES_METER_NAME).tag("tier", "OffHeap").gauge().value()).isPositive();
+    }
+}
@@ -0,0 +1,73 @@
+package com.alunometa.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.repository.AlunoRepository;
+import com.alunometa.security.AuthoritiesConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SlowQueriesEndpoint}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class SlowQueriesEndpointIT {
+
+    private static final String ENDPOINT_URL = "/management/slowqueries";
+
+    @Autowired
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        slowQueryRecorder.reset();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getSlowQueriesListsTheStatementsOfThisContext() throws Exception {
+        alunoRepository.count();
+
+        mockMvc
+            .perform(get(ENDPOINT_URL).param("limit", "50"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].fingerprint").value(hasItem(containsString("from aluno"))))
+            .andExpect(jsonPath("$.[0].count").isNumber());
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void deleteSlowQueriesResetsTheStatistics() throws Exception {
+        alunoRepository.count();
+
+        mockMvc.perform(delete(ENDPOINT_URL)).andExpect(status().is2xxSuccessful());
+
+        assertThat(slowQueryRecorder.top(50))
+            .extracting(SlowQueryRecorder.QueryStatistics::fingerprint)
+            .noneMatch(fingerprint -> fingerprint.contains("from aluno"));
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void getSlowQueriesIsForbiddenToUsers() throws Exception {
+        mockMvc.perform(get(ENDPOINT_URL)).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,135 @@
+package com.alunometa.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.alunometa.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryRecorderTests {
+
+    private static final String SELECT_ALUNO = "select a1_0.id from aluno a1_0 where a1_0.id=?";
+
+    private static final String SELECT_META = "select m1_0.id from meta m1_0 where m1_0.aluno_id=?";
+
+    private ApplicationProperties applicationProperties;
+
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSlowQueries().setMaxFingerprints(2);
+        slowQueryRecorder = new SlowQueryRecorder(applicationProperties);
+    }
+
+    @Test
+    void testFingerprintReplacesTheLiterals() {
+        String sql = "select a1_0.id from aluno a1_0\n where a1_0.nome like 'O''Brien%' and a1_0.id in (?, ?,?) limit 20";
+
+        assertThat(SlowQueryRecorder.fingerprint(sql)).isEqualTo(
+            "select a1_0.id from aluno a1_0 where a1_0.nome like ? and a1_0.id in (?) limit ?"
+        );
+    }
+
+    @Test
+    void testStatementsAreAggregatedByFingerprint() {
+        slowQueryRecorder.record("select a1_0.id from aluno a1_0 where a1_0.id=1", TimeUnit.MILLISECONDS.toNanos(1));
+        slowQueryRecorder.record("select a1_0.id from aluno a1_0 where a1_0.id=2", TimeUnit.MILLISECONDS.toNanos(3));
+
+        List<SlowQueryRecorder.QueryStatistics> top = slowQueryRecorder.top(10);
+
+        assertThat(top).hasSize(1);
+        SlowQueryRecorder.QueryStatistics statistics = top.get(0);
+        assertThat(statistics.fingerprint()).isEqualTo("select a1_0.id from aluno a1_0 where a1_0.id=?");
+        assertThat(statistics.count()).isEqualTo(2);
+        assertThat(statistics.total()).isEqualTo(Duration.ofMillis(4));
+        assertThat(statistics.mean()).isEqualTo(Duration.ofMillis(2));
+        assertThat(statistics.max()).isEqualTo(Duration.ofMillis(3));
+    }
+
+    @Test
+    void testP99IsEstimatedWithinABucket() {
+        for (int i = 0; i < 99; i++) {
+            slowQueryRecorder.record(SELECT_ALUNO, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        slowQueryRecorder.record(SELECT_ALUNO, TimeUnit.MILLISECONDS.toNanos(50));
+
+        Duration p99 = slowQueryRecorder.top(1).get(0).p99();
+
+        assertThat(p99).isGreaterThanOrEqualTo(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(100)));
+        assertThat(p99).isLessThanOrEqualTo(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(125)));
+    }
+
+    @Test
+    void testTopIsSortedByTotalTime() {
+        slowQueryRecorder.record(SELECT_ALUNO, TimeUnit.MILLISECONDS.toNanos(1));
+        slowQueryRecorder.record(SELECT_META, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(slowQueryRecorder.top(10))
+            .extracting(SlowQueryRecorder.QueryStatistics::fingerprint)
+            .containsExactly(SELECT_META, SELECT_ALUNO);
+        assertThat(slowQueryRecorder.top(1)).hasSize(1);
+    }
+
+    @Test
+    void testTheCheapestFingerprintIsReplacedWhenFull() {
+        slowQueryRecorder.record(SELECT_ALUNO, TimeUnit.MILLISECONDS.toNanos(1));
+        slowQueryRecorder.record(SELECT_META, TimeUnit.MILLISECONDS.toNanos(5));
+
+        slowQueryRecorder.record("select u1_0.id from jhi_user u1_0", TimeUnit.MILLISECONDS.toNanos(2));
+
+        assertThat(slowQueryRecorder.top(10))
+            .extracting(SlowQueryRecorder.QueryStatistics::fingerprint)
+            .containsExactly(SELECT_META, "select u1_0.id from jhi_user u1_0");
+    }
+
+    @Test
+    void testBatchExecutedAfterAnotherStatementIsInspectedKeepsItsSql() {
+        String insertMeta = "insert into meta (area,valor,id) values (?,?,?)";
+        QueryStatisticsSessionListener listener = new QueryStatisticsSessionListener();
+        slowQueryRecorder.inspect(insertMeta);
+        listener.jdbcPrepareStatementStart();
+        // The batch of metas is executed when the statement of another batch key is inspected
+        slowQueryRecorder.inspect(SELECT_ALUNO);
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        assertThat(slowQueryRecorder.top(10))
+            .extracting(SlowQueryRecorder.QueryStatistics::fingerprint, SlowQueryRecorder.QueryStatistics::count)
+            .containsExactlyInAnyOrder(tuple(SlowQueryRecorder.fingerprint(insertMeta), 1L), tuple(SELECT_ALUNO, 1L));
+    }
+
+    @Test
+    void testStatementNotInspectedIsNotRecorded() {
+        QueryStatisticsSessionListener listener = new QueryStatisticsSessionListener();
+        slowQueryRecorder.inspect(SELECT_ALUNO);
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        // Not charged to the statement inspected before on the same thread
+        QueryStatisticsSessionListener otherListener = new QueryStatisticsSessionListener();
+        otherListener.jdbcPrepareStatementStart();
+        otherListener.jdbcExecuteStatementStart();
+        otherListener.jdbcExecuteStatementEnd();
+
+        assertThat(slowQueryRecorder.top(10)).singleElement().extracting(SlowQueryRecorder.QueryStatistics::count).isEqualTo(1L);
+    }
+
+    @Test
+    void testReset() {
+        slowQueryRecorder.record(SELECT_ALUNO, TimeUnit.MILLISECONDS.toNanos(1));
+
+        slowQueryRecorder.reset();
+
+        assertThat(slowQueryRecorder.top(10)).isEmpty();
+    }
+}
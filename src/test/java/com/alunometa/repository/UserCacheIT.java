@@ -0,0 +1,151 @@
+package com.alunometa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link UserCache}.
+ */
+@IntegrationTest
+class UserCacheIT {
+
+    private static final String LOGIN = "johndoe_cache";
+
+    private static final String EMAIL = "johndoe_cache@localhost";
+
+    private static final String NEW_EMAIL = "johndoe_cache_new@localhost";
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        user = new User();
+        user.setLogin(LOGIN);
+        user.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(EMAIL);
+        user.setLangKey("en");
+        user = userRepository.saveAndFlush(user);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteById(user.getId());
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+    }
+
+    @Test
+    void testGetByLoginCachesTheUser() {
+        double misses = lookups("login", "miss");
+        double hits = lookups("login", "hit");
+
+        Optional<User> loaded = userCache.getByLogin(LOGIN);
+        Optional<User> cached = userCache.getByLogin(LOGIN);
+
+        assertThat(loaded).isPresent();
+        assertThat(loaded.orElseThrow().getAuthorities()).isNotNull();
+        assertThat(cached.orElseThrow()).isSameAs(loaded.orElseThrow());
+        assertThat(lookups("login", "miss")).isEqualTo(misses + 1);
+        assertThat(lookups("login", "hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void testGetByEmailSharesTheUserCachedByLogin() {
+        double hits = lookups("email", "hit");
+        User loaded = userCache.getByLogin(LOGIN).orElseThrow();
+
+        // The email index is filled by the lookup by login
+        assertThat(userCache.getByEmail(EMAIL.toUpperCase())).containsSame(loaded);
+        assertThat(lookups("email", "hit")).isEqualTo(hits + 1);
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(EMAIL, String.class)).isEqualTo(LOGIN);
+    }
+
+    @Test
+    void testGetUnknownUserIsNotCached() {
+        assertThat(userCache.getByLogin("unknown")).isEmpty();
+        assertThat(userCache.getByEmail("unknown@localhost")).isEmpty();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("unknown")).isNull();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get("unknown@localhost")).isNull();
+    }
+
+    @Test
+    void testEvictRemovesTheUserFromBothCaches() {
+        double evictions = meterRegistry.get(UserCache.EVICTIONS_METER_NAME).counter().count();
+        userCache.getByEmail(EMAIL);
+
+        userCache.evict(user);
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(LOGIN)).isNull();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(EMAIL)).isNull();
+        assertThat(meterRegistry.get(UserCache.EVICTIONS_METER_NAME).counter().count()).isEqualTo(evictions + 1);
+    }
+
+    @Test
+    void testPreviousEmailIsNotServed() {
+        userCache.getByEmail(EMAIL);
+
+        // The user is only evicted by its new email, leaving the previous one in the email index
+        user.setEmail(NEW_EMAIL);
+        user = userRepository.saveAndFlush(user);
+        userCache.evict(user);
+        userCache.getByLogin(LOGIN);
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(EMAIL, String.class)).isEqualTo(LOGIN);
+        assertThat(userCache.getByEmail(EMAIL)).isEmpty();
+        assertThat(userCache.getByEmail(NEW_EMAIL).orElseThrow().getEmail()).isEqualTo(NEW_EMAIL);
+    }
+
+    @Test
+    void testEvictAgainWhenTheTransactionCompletes() {
+        userCache.getByLogin(LOGIN);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User stored = userRepository.findOneByLogin(LOGIN).orElseThrow();
+            stored.setFirstName("changed");
+            userCache.evict(stored);
+            // A lookup before the commit caches the previous state
+            userCache.getByLogin(LOGIN);
+            assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(LOGIN)).isNotNull();
+        });
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(LOGIN)).isNull();
+        assertThat(userCache.getByLogin(LOGIN).orElseThrow().getFirstName()).isEqualTo("changed");
+    }
+
+    private double lookups(String key, String result) {
+        return meterRegistry
+            .get(UserCache.LOOKUPS_METER_NAME)
+            .tag(UserCache.KEY_DIMENSION, key)
+            .tag(UserCache.RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,265 @@
+package com.alunometa.repository.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.config.ApplicationProperties;
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.repository.AlunoRepository;
+import com.alunometa.repository.MetaRepository;
+import com.alunometa.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link ClusterCacheInvalidator} over {@link PostgresCacheInvalidationTransport}.
+ * <p>
+ * The application context is the first instance, and a second instance is simulated by another transport on the same
+ * database, with a subscriber recording the messages it receives.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "application.cache.invalidation.transport=postgres",
+        "application.cache.invalidation.batch-window=500ms",
+    }
+)
+class ClusterCacheInvalidationIT {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String ALUNO = Aluno.class.getName();
+
+    private static final String META = Meta.class.getName();
+
+    @Autowired
+    private CacheInvalidationTransport transport;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private TransactionTemplate transactionTemplate;
+
+    private PostgresCacheInvalidationTransport otherInstance;
+
+    private final BlockingQueue<List<CacheInvalidation>> received = new LinkedBlockingQueue<>();
+
+    private final List<Long> alunoIds = new ArrayList<>();
+
+    private final List<Long> metaIds = new ArrayList<>();
+
+    @BeforeEach
+    public void init() throws InterruptedException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        otherInstance = new PostgresCacheInvalidationTransport(
+            dataSourceProperties,
+            jdbcTemplate,
+            transactionManager,
+            objectMapper,
+            applicationProperties
+        );
+        otherInstance.subscribe(
+            new CacheInvalidationTransport.Subscriber() {
+                @Override
+                public void onInvalidations(List<CacheInvalidation> invalidations) {
+                    received.add(invalidations);
+                }
+
+                @Override
+                public void onMissedInvalidations() {}
+            }
+        );
+        // The other instance listens asynchronously: wait until it receives the messages of this one
+        CacheInvalidation probe = CacheInvalidation.cache("probe", "probe");
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!Objects.equals(received.poll(200, TimeUnit.MILLISECONDS), List.of(probe))) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            transport.publish(List.of(probe));
+        }
+        received.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        otherInstance.stop();
+        metaRepository.deleteAllById(metaIds);
+        alunoRepository.deleteAllById(alunoIds);
+    }
+
+    @Test
+    void assertThatCommittedUpdatesAreBroadcast() throws InterruptedException {
+        Aluno aluno = createAluno();
+
+        transactionTemplate.executeWithoutResult(status -> alunoRepository.findById(aluno.getId()).orElseThrow().setNome("BBBBBBBBBB"));
+
+        assertThat(receive(CacheInvalidation.entity(ALUNO, aluno.getId()))).isNotNull();
+    }
+
+    @Test
+    void assertThatRolledBackUpdatesAreNotBroadcast() throws InterruptedException {
+        Aluno aluno = createAluno();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            alunoRepository.findById(aluno.getId()).orElseThrow().setNome("BBBBBBBBBB");
+            alunoRepository.flush();
+            status.setRollbackOnly();
+        });
+        // The next broadcast eviction shows whether the first one was sent
+        Aluno other = createAluno();
+        transactionTemplate.executeWithoutResult(status -> alunoRepository.findById(other.getId()).orElseThrow().setNome("BBBBBBBBBB"));
+
+        List<CacheInvalidation> invalidations = receive(CacheInvalidation.entity(ALUNO, other.getId()));
+        assertThat(invalidations).isNotNull().doesNotContain(CacheInvalidation.entity(ALUNO, aluno.getId()));
+    }
+
+    @Test
+    void assertThatMovingAMetaEvictsTheMetasOfBothAlunos() throws InterruptedException {
+        Aluno previous = createAluno();
+        Aluno next = createAluno();
+        Meta meta = createMeta(new Meta().valor(500).area(AreaDoEnem.MATEMATICA).aluno(previous));
+
+        transactionTemplate.executeWithoutResult(status -> metaRepository.findById(meta.getId()).orElseThrow().setAluno(next));
+
+        List<CacheInvalidation> invalidations = receive(CacheInvalidation.entity(META, meta.getId()));
+        assertThat(invalidations).contains(
+            CacheInvalidation.collection(EntityCacheInvalidationListener.ALUNO_METAS_ROLE, previous.getId()),
+            CacheInvalidation.collection(EntityCacheInvalidationListener.ALUNO_METAS_ROLE, next.getId())
+        );
+    }
+
+    @Test
+    void assertThatEvictionsAreBroadcastInBatches() throws InterruptedException {
+        List<Aluno> alunos = Stream.generate(this::createAluno).limit(3).toList();
+
+        for (Aluno aluno : alunos) {
+            transactionTemplate.executeWithoutResult(status -> alunoRepository.findById(aluno.getId()).orElseThrow().setNome("BBBBBBBBBB"));
+        }
+
+        // The three transactions commit within the batch window, so their evictions are sent in one message
+        List<CacheInvalidation> invalidations = receive(CacheInvalidation.entity(ALUNO, alunos.get(0).getId()));
+        assertThat(invalidations).contains(
+            CacheInvalidation.entity(ALUNO, alunos.get(1).getId()),
+            CacheInvalidation.entity(ALUNO, alunos.get(2).getId())
+        );
+    }
+
+    @Test
+    void assertThatReceivedEvictionsAreApplied() {
+        Aluno aluno = createAluno();
+        transactionTemplate.executeWithoutResult(status -> entityManager.find(Aluno.class, aluno.getId()));
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).put("johndoe_invalidation", "cached");
+        assertThat(entityManagerFactory.getCache().contains(Aluno.class, aluno.getId())).isTrue();
+
+        otherInstance.publish(
+            List.of(
+                CacheInvalidation.entity(ALUNO, aluno.getId()),
+                CacheInvalidation.cache(UserRepository.USERS_BY_LOGIN_CACHE, "johndoe_invalidation")
+            )
+        );
+
+        awaitUntil(() -> !entityManagerFactory.getCache().contains(Aluno.class, aluno.getId()));
+        awaitUntil(() -> cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("johndoe_invalidation") == null);
+    }
+
+    private Meta createMeta(Meta meta) {
+        meta = metaRepository.saveAndFlush(meta);
+        metaIds.add(meta.getId());
+        return meta;
+    }
+
+    private Aluno createAluno() {
+        Aluno aluno = alunoRepository.saveAndFlush(
+            new Aluno().nome("AAAAAAAAAA").email("AAAAAAAAAA").dataNascimento(LocalDate.ofEpochDay(0L))
+        );
+        alunoIds.add(aluno.getId());
+        return aluno;
+    }
+
+    /**
+     * Returns the first message received by the other instance containing the given eviction, ids being compared by
+     * value since they are read back as the smallest fitting number type.
+     */
+    private List<CacheInvalidation> receive(CacheInvalidation expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<CacheInvalidation> invalidations = received.poll(100, TimeUnit.MILLISECONDS);
+            if (invalidations != null) {
+                List<CacheInvalidation> normalized = invalidations.stream().map(ClusterCacheInvalidationIT::normalize).toList();
+                if (normalized.contains(expected)) {
+                    return normalized;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static CacheInvalidation normalize(CacheInvalidation invalidation) {
+        return invalidation.key() instanceof Number id
+            ? new CacheInvalidation(invalidation.type(), invalidation.region(), id.longValue())
+            : invalidation;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
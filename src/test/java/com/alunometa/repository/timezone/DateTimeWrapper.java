@@ -1,5 +1,6 @@
 package com.alunometa.repository.timezone;
 
+import com.alunometa.domain.id.SharedSequenceId;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.time.*;
@@ -12,8 +13,7 @@ public class DateTimeWrapper implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SharedSequenceId
     private Long id;
 
     @Column(name = "instant")
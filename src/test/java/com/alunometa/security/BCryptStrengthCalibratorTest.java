@@ -0,0 +1,37 @@
+package com.alunometa.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BCryptStrengthCalibrator} utility class.
+ */
+class BCryptStrengthCalibratorTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void testHighestStrengthWithinTarget() {
+        // 10 ms at strength 10, so 80 ms at strength 13 and 160 ms at strength 14
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 10, 16, strength -> 10 * MILLIS)).isEqualTo(13);
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofMillis(80), 10, 16, strength -> 10 * MILLIS)).isEqualTo(13);
+    }
+
+    @Test
+    void testMinStrengthWhenSlowerThanTarget() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 10, 16, strength -> 500 * MILLIS)).isEqualTo(10);
+    }
+
+    @Test
+    void testMaxStrengthWhenFasterThanTarget() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(10), 10, 12, strength -> MILLIS)).isEqualTo(12);
+    }
+
+    @Test
+    void testMeasuresTheMinStrength() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(1), 4, 5, strength -> strength * MILLIS)).isEqualTo(5);
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ZERO, 4, 31)).isEqualTo(4);
+    }
+}
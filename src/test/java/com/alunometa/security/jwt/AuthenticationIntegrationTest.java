@@ -1,5 +1,6 @@
 package com.alunometa.security.jwt;
 
+import com.alunometa.config.ApplicationProperties;
 import com.alunometa.config.SecurityConfiguration;
 import com.alunometa.config.SecurityJwtConfiguration;
 import com.alunometa.config.WebConfigurer;
@@ -21,6 +22,7 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
         JHipsterProperties.class,
+        ApplicationProperties.class,
         WebConfigurer.class,
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
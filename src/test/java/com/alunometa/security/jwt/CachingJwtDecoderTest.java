@@ -0,0 +1,103 @@
+package com.alunometa.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.alunometa.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private MeterRegistry meterRegistry;
+
+    private SecurityMetersService metersService;
+
+    private final AtomicInteger decodings = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metersService = new SecurityMetersService(meterRegistry);
+    }
+
+    @Test
+    void testTokenIsDecodedOnce() {
+        CachingJwtDecoder decoder = decoder(NOW.plusSeconds(60), 10);
+
+        Jwt jwt = decoder.decode("token");
+
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+        assertThat(decodings).hasValue(1);
+        assertThat(cacheCount("hit")).isEqualTo(1);
+        assertThat(cacheCount("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredTokenIsDecodedAgain() {
+        CachingJwtDecoder decoder = decoder(NOW, 10);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        assertThat(decodings).hasValue(2);
+        assertThat(cacheCount("hit")).isZero();
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(
+            token -> {
+                decodings.incrementAndGet();
+                throw new BadJwtException("Invalid signature");
+            },
+            metersService,
+            10,
+            Clock.fixed(NOW, ZoneOffset.UTC)
+        );
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("token"));
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("token"));
+        assertThat(decodings).hasValue(2);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        CachingJwtDecoder decoder = decoder(NOW.plusSeconds(60), 10);
+
+        for (int i = 0; i < 100; i++) {
+            decoder.decode("token" + i);
+        }
+
+        assertThat(decoder.size()).isLessThanOrEqualTo(10);
+        decoder.decode("token99");
+        assertThat(cacheCount("hit")).isEqualTo(1);
+    }
+
+    private CachingJwtDecoder decoder(Instant expiresAt, int maxSize) {
+        return new CachingJwtDecoder(
+            token -> {
+                decodings.incrementAndGet();
+                return Jwt.withTokenValue(token).header("alg", "HS512").subject("user").expiresAt(expiresAt).build();
+            },
+            metersService,
+            maxSize,
+            Clock.fixed(NOW, ZoneOffset.UTC)
+        );
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,194 @@
+package com.alunometa.security.jwt;
+
+import static com.alunometa.security.SecurityUtils.JWT_ALGORITHM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.alunometa.management.SecurityMetersService;
+import com.alunometa.security.jwt.PreValidatingJwtDecoder.TokenCheck;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+class PreValidatingJwtDecoderTest {
+
+    private static final SecretKey KEY = key("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+
+    private static final SecretKey OTHER_KEY = key("fedcba9876543210fedcba9876543210fedcba9876543210fedcba9876543210");
+
+    private MeterRegistry meterRegistry;
+
+    private PreValidatingJwtDecoder decoder;
+
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        NimbusJwtDecoder nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(KEY).macAlgorithm(JWT_ALGORITHM).build();
+        decoder = new PreValidatingJwtDecoder(
+            token -> {
+                delegateCalls.incrementAndGet();
+                return nimbusJwtDecoder.decode(token);
+            },
+            JWT_ALGORITHM,
+            new SecurityMetersService(meterRegistry)
+        );
+    }
+
+    @Test
+    void testValidTokenPasses() {
+        String token = token(KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60));
+
+        assertThat(decoder.check(token)).isEqualTo(TokenCheck.PASSED);
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("user");
+        assertThat(invalidTokensCount()).isZero();
+    }
+
+    @Test
+    void testMalformedTokensAreRejected() {
+        assertThat(decoder.check("")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("foo")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("a.b")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("ab.cd.ef.gh")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("ab.c=.ef")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("ab.cd.")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check("abcde.cd.ef")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(decoder.check(token(KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60)).substring(1))).isEqualTo(
+            TokenCheck.MALFORMED
+        );
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("foo"));
+        assertThat(invalidTokensCount("malformed")).isEqualTo(1);
+        assertThat(delegateCalls).hasValue(0);
+    }
+
+    @Test
+    void testTokenWithAnotherAlgorithmIsUnsupported() {
+        String token = token(KEY, MacAlgorithm.HS256, Instant.now().plusSeconds(60));
+
+        assertThat(decoder.check(token)).isEqualTo(TokenCheck.UNSUPPORTED);
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode(token));
+        assertThat(invalidTokensCount("unsupported")).isEqualTo(1);
+        assertThat(delegateCalls).hasValue(0);
+    }
+
+    @Test
+    void testExpiredTokenIsRejectedAfterTheClockSkew() {
+        Instant now = Instant.now();
+        PreValidatingJwtDecoder decoderAtNow = new PreValidatingJwtDecoder(
+            token -> null,
+            JWT_ALGORITHM,
+            new SecurityMetersService(meterRegistry),
+            Clock.fixed(now, ZoneOffset.UTC)
+        );
+
+        assertThat(decoderAtNow.check(token(KEY, JWT_ALGORITHM, now.minusSeconds(30)))).isEqualTo(TokenCheck.PASSED);
+        assertThat(decoderAtNow.check(token(KEY, JWT_ALGORITHM, now.minusSeconds(120)))).isEqualTo(TokenCheck.EXPIRED);
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() ->
+            decoder.decode(token(KEY, JWT_ALGORITHM, now.minusSeconds(120)))
+        );
+        assertThat(invalidTokensCount("expired")).isEqualTo(1);
+        assertThat(delegateCalls).hasValue(0);
+    }
+
+    @Test
+    void testTokenWithInvalidSignatureIsClassifiedByType() {
+        String token = token(OTHER_KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60));
+
+        assertThat(decoder.check(token)).isEqualTo(TokenCheck.PASSED);
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode(token));
+        assertThat(invalidTokensCount("invalid-signature")).isEqualTo(1);
+        assertThat(invalidTokensCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testTokenExpiredForTheDelegateIsExpired() {
+        // Pre-validated an hour earlier, before the expiry
+        PreValidatingJwtDecoder lateDecoder = new PreValidatingJwtDecoder(
+            NimbusJwtDecoder.withSecretKey(KEY).macAlgorithm(JWT_ALGORITHM).build(),
+            JWT_ALGORITHM,
+            new SecurityMetersService(meterRegistry),
+            Clock.offset(Clock.systemUTC(), Duration.ofHours(-1))
+        );
+        String token = token(KEY, JWT_ALGORITHM, Instant.now().minusSeconds(600));
+
+        assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> lateDecoder.decode(token));
+        assertThat(invalidTokensCount("expired")).isEqualTo(1);
+        assertThat(invalidTokensCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testTokenNotValidYetIsNotExpired() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(now)
+            .notBefore(now.plusSeconds(3600))
+            .expiresAt(now.plusSeconds(7200))
+            .subject("user")
+            .build();
+        String token = new NimbusJwtEncoder(new ImmutableSecret<>(KEY))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims))
+            .getTokenValue();
+
+        assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(token));
+        assertThat(invalidTokensCount("invalid-claims")).isEqualTo(1);
+        assertThat(invalidTokensCount("expired")).isZero();
+    }
+
+    @Test
+    void testOtherDecodingErrorIsRethrown() {
+        PreValidatingJwtDecoder failingDecoder = new PreValidatingJwtDecoder(
+            token -> {
+                throw new JwtException("Couldn't retrieve the key");
+            },
+            JWT_ALGORITHM,
+            new SecurityMetersService(meterRegistry)
+        );
+
+        assertThatExceptionOfType(JwtException.class)
+            .isThrownBy(() -> failingDecoder.decode(token(KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60))))
+            .withMessage("Couldn't retrieve the key");
+        assertThat(invalidTokensCount()).isZero();
+    }
+
+    private static String token(SecretKey key, MacAlgorithm algorithm, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(expiresAt.minusSeconds(60)).expiresAt(expiresAt).subject("user").build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(key))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims))
+            .getTokenValue();
+    }
+
+    private static SecretKey key(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.US_ASCII), JWT_ALGORITHM.getName());
+    }
+
+    private double invalidTokensCount(String cause) {
+        return meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", cause).counter().count();
+    }
+
+    private double invalidTokensCount() {
+        return meterRegistry.find(SecurityMetersService.INVALID_TOKENS_METER_NAME).counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,96 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.repository.AlunoRepository;
+import com.alunometa.repository.MetaRepository;
+import com.alunometa.service.criteria.AlunoCriteria;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Integration tests for {@link AlunoQueryService}, counting the statements it issues.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AlunoQueryServiceIT {
+
+    private static final int ALUNOS = 6;
+
+    private static final int METAS_PER_ALUNO = 3;
+
+    @Autowired
+    private AlunoQueryService alunoQueryService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Aluno> alunos = new ArrayList<>();
+
+    private final List<Meta> metas = new ArrayList<>();
+
+    private AlunoCriteria criteria;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < ALUNOS; i++) {
+            Aluno aluno = alunoRepository.save(new Aluno().nome("AAAAAAAAAA").email("AAAAAAAAAA").dataNascimento(LocalDate.ofEpochDay(0L)));
+            for (int j = 0; j < METAS_PER_ALUNO; j++) {
+                metas.add(metaRepository.save(new Meta().valor(j).area(AreaDoEnem.MATEMATICA).aluno(aluno)));
+            }
+            alunos.add(aluno);
+        }
+        criteria = new AlunoCriteria();
+        LongFilter idFilter = new LongFilter();
+        idFilter.setIn(alunos.stream().map(Aluno::getId).toList());
+        criteria.setId(idFilter);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        metaRepository.deleteAll(metas);
+        alunoRepository.deleteAll(alunos);
+    }
+
+    @Test
+    void assertThatAlunosWithMetasAreLoadedWithConstantQueryCount() {
+        assertThat(statementsToWalkPage(2)).isEqualTo(3);
+        assertThat(statementsToWalkPage(4)).isEqualTo(3);
+    }
+
+    private long statementsToWalkPage(int size) {
+        statistics.clear();
+        Page<Aluno> page = alunoQueryService.findByCriteriaWithMetas(criteria, PageRequest.of(0, size, Sort.by("id")));
+        assertThat(page.getContent()).hasSize(size);
+        // Walking the metas outside of the transaction only works if they were loaded
+        assertThat(page.getContent()).allSatisfy(aluno -> assertThat(aluno.getMetas()).hasSize(METAS_PER_ALUNO));
+        // The page, the count and the metas of the page
+        return statistics.getPrepareStatementCount();
+    }
+}
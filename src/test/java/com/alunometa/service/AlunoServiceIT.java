@@ -0,0 +1,70 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.Aluno;
+import com.alunometa.repository.AlunoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link AlunoService} with the second-level cache enabled.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class AlunoServiceIT {
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Aluno aluno;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        aluno = alunoRepository.saveAndFlush(
+            new Aluno().nome("AAAAAAAAAA").email("AAAAAAAAAA").dataNascimento(LocalDate.ofEpochDay(0L))
+        );
+        entityManagerFactory.getCache().evict(Aluno.class);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        alunoRepository.deleteById(aluno.getId());
+    }
+
+    @Test
+    void assertThatRepeatedFindOneIsServedFromSecondLevelCache() {
+        assertThat(alunoService.findOne(aluno.getId())).isPresent();
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        assertThat(statementsAfterFirstRead).isPositive();
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+
+        assertThat(alunoService.findOne(aluno.getId())).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstRead);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Aluno.class.getName()).getHitCount()).isEqualTo(1);
+    }
+}
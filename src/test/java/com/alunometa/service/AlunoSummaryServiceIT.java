@@ -0,0 +1,159 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.Aluno;
+import com.alunometa.domain.AlunoSummary;
+import com.alunometa.domain.Meta;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.repository.AlunoRepository;
+import com.alunometa.repository.MetaRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link AlunoSummaryService}, each service call committing its own transaction.
+ */
+@IntegrationTest
+class AlunoSummaryServiceIT {
+
+    @Autowired
+    private AlunoSummaryService alunoSummaryService;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private MetaService metaService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    private final List<Aluno> alunos = new ArrayList<>();
+
+    private final List<Long> metaIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        metaRepository.deleteAllById(metaIds);
+        alunos.forEach(aluno -> alunoRepository.deleteById(aluno.getId()));
+    }
+
+    @Test
+    void assertThatANewAlunoHasAnEmptySummary() {
+        Aluno aluno = createAluno();
+
+        AlunoSummary summary = summary(aluno);
+        assertThat(summary.getMetaCount()).isZero();
+        assertThat(summary.getLinguagens()).isNull();
+        assertThat(summary.getHumanas()).isNull();
+        assertThat(summary.getNatureza()).isNull();
+        assertThat(summary.getMatematica()).isNull();
+        assertThat(summary.getLastModifiedDate()).isNotNull();
+    }
+
+    @Test
+    void assertThatTheSummaryFollowsTheMetaWrites() {
+        Aluno aluno = createAluno();
+        Meta lowMatematica = createMeta(new Meta().valor(700).area(AreaDoEnem.MATEMATICA).aluno(aluno));
+        Meta highMatematica = createMeta(new Meta().valor(800).area(AreaDoEnem.MATEMATICA).aluno(aluno));
+        Meta humanas = createMeta(new Meta().valor(600).area(AreaDoEnem.HUMANAS).aluno(aluno));
+
+        AlunoSummary summary = summary(aluno);
+        assertThat(summary.getMetaCount()).isEqualTo(3);
+        assertThat(summary.getMatematica()).isEqualTo(800);
+        assertThat(summary.getHumanas()).isEqualTo(600);
+        assertThat(summary.getLinguagens()).isNull();
+
+        metaService.partialUpdate(new Meta().id(highMatematica.getId()).valor(500));
+        assertThat(summary(aluno).getMatematica()).isEqualTo(lowMatematica.getValor());
+
+        metaService.delete(humanas.getId());
+        summary = summary(aluno);
+        assertThat(summary.getMetaCount()).isEqualTo(2);
+        assertThat(summary.getHumanas()).isNull();
+    }
+
+    @Test
+    void assertThatMovingAMetaUpdatesTheSummariesOfBothAlunos() {
+        Aluno aluno = createAluno();
+        Aluno otherAluno = createAluno();
+        Meta meta = createMeta(new Meta().valor(900).area(AreaDoEnem.NATUREZA).aluno(aluno));
+
+        metaService.update(new Meta().id(meta.getId()).valor(900).area(AreaDoEnem.NATUREZA).aluno(otherAluno));
+
+        assertThat(summary(aluno).getMetaCount()).isZero();
+        assertThat(summary(aluno).getNatureza()).isNull();
+        assertThat(summary(otherAluno).getMetaCount()).isEqualTo(1);
+        assertThat(summary(otherAluno).getNatureza()).isEqualTo(900);
+    }
+
+    @Test
+    void assertThatTheSummaryFollowsTheAlunoUpdates() {
+        Aluno aluno = createAluno();
+        assertThat(summary(aluno).getNome()).isEqualTo(aluno.getNome());
+        assertThat(summary(aluno).getEmail()).isEqualTo(aluno.getEmail());
+        assertThat(summary(aluno).getDataNascimento()).isEqualTo(aluno.getDataNascimento());
+
+        alunoService.update(aluno.nome("BBBBBBBBBB").telefone("BBBBBBBBBB"));
+        assertThat(summary(aluno).getNome()).isEqualTo("BBBBBBBBBB");
+        assertThat(summary(aluno).getTelefone()).isEqualTo("BBBBBBBBBB");
+
+        alunoService.partialUpdate(new Aluno().id(aluno.getId()).email("CCCCCCCCCC"));
+        AlunoSummary summary = summary(aluno);
+        assertThat(summary.getEmail()).isEqualTo("CCCCCCCCCC");
+        assertThat(summary.getNome()).isEqualTo("BBBBBBBBBB");
+    }
+
+    @Test
+    void assertThatDeletingAnAlunoDeletesItsSummary() {
+        Aluno aluno = alunoService.save(newAluno());
+
+        alunoService.delete(aluno.getId());
+
+        assertThat(alunoSummaryService.findOne(aluno.getId())).isEmpty();
+    }
+
+    @Test
+    void assertThatTheMissingSummariesAreBackfilled() {
+        // Written without the services, as before the summaries existed
+        Aluno aluno = alunoRepository.saveAndFlush(newAluno());
+        alunos.add(aluno);
+        metaIds.add(metaRepository.saveAndFlush(new Meta().valor(400).area(AreaDoEnem.LINGUAGENS).aluno(aluno)).getId());
+        assertThat(alunoSummaryService.findOne(aluno.getId())).isEmpty();
+
+        alunoSummaryService.backfill();
+
+        AlunoSummary summary = summary(aluno);
+        assertThat(summary.getMetaCount()).isEqualTo(1);
+        assertThat(summary.getLinguagens()).isEqualTo(400);
+    }
+
+    private Aluno createAluno() {
+        Aluno aluno = alunoService.save(newAluno());
+        alunos.add(aluno);
+        return aluno;
+    }
+
+    private Meta createMeta(Meta meta) {
+        Meta result = metaService.save(meta);
+        metaIds.add(result.getId());
+        return result;
+    }
+
+    private static Aluno newAluno() {
+        return new Aluno().nome("AAAAAAAAAA").email("AAAAAAAAAA").dataNascimento(LocalDate.ofEpochDay(0L));
+    }
+
+    private AlunoSummary summary(Aluno aluno) {
+        return alunoSummaryService.findOne(aluno.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,152 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.repository.AlunoRepository;
+import com.alunometa.repository.MetaRepository;
+import com.alunometa.service.criteria.AlunoCriteria;
+import com.alunometa.service.criteria.MetaCriteria;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests checking that the filters of {@link AlunoCriteria} and {@link MetaCriteria} are served by an index.
+ * <p>
+ * The query of each criteria is captured with its values inlined, then explained with sequential scans disabled:
+ * the planner only keeps a sequential scan when no index can serve the query.
+ */
+@IntegrationTest
+@Transactional
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.alunometa.service.CriteriaQueryPlanIT$FirstStatement",
+    }
+)
+class CriteriaQueryPlanIT {
+
+    @Autowired
+    private AlunoQueryService alunoQueryService;
+
+    @Autowired
+    private MetaQueryService metaQueryService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void disableSequentialScans() {
+        em.createNativeQuery("set local enable_seqscan = off").executeUpdate();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("alunoCriteria")
+    void alunoCriteriaShouldUseAnIndex(String filters, AlunoCriteria criteria) {
+        FirstStatement.reset();
+        alunoRepository.findAll(alunoQueryService.createSpecification(criteria));
+        assertThat(explain(FirstStatement.get())).as(filters).noneMatch(line -> line.contains("Seq Scan"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("metaCriteria")
+    void metaCriteriaShouldUseAnIndex(String filters, MetaCriteria criteria) {
+        FirstStatement.reset();
+        metaRepository.findAll(metaQueryService.createSpecification(criteria));
+        assertThat(explain(FirstStatement.get())).as(filters).noneMatch(line -> line.contains("Seq Scan"));
+    }
+
+    static Stream<Arguments> alunoCriteria() {
+        return Stream.of(
+            aluno("id.in", criteria -> criteria.id().setIn(List.of(1L, 2L))),
+            aluno("nome.equals", criteria -> criteria.nome().setEquals("Maria")),
+            aluno("nome.contains", criteria -> criteria.nome().setContains("mar")),
+            aluno("email.equals", criteria -> criteria.email().setEquals("maria@example.com")),
+            aluno("email.contains", criteria -> criteria.email().setContains("example")),
+            aluno("dataNascimento.greaterThan", criteria -> criteria.dataNascimento().setGreaterThan(LocalDate.of(2008, 1, 1))),
+            aluno("telefone.contains", criteria -> criteria.telefone().setContains("9876")),
+            aluno("metasId.equals", criteria -> criteria.metasId().setEquals(1L)),
+            aluno("nome.contains, dataNascimento.lessThan", criteria -> {
+                criteria.nome().setContains("mar");
+                criteria.dataNascimento().setLessThan(LocalDate.of(2008, 1, 1));
+            })
+        );
+    }
+
+    static Stream<Arguments> metaCriteria() {
+        return Stream.of(
+            meta("area.equals", criteria -> criteria.area().setEquals(AreaDoEnem.MATEMATICA)),
+            meta("valor.greaterThan", criteria -> criteria.valor().setGreaterThan(900)),
+            meta("descricao.contains", criteria -> criteria.descricao().setContains("redação")),
+            meta("alunoId.equals", criteria -> criteria.alunoId().setEquals(1L)),
+            meta("alunoId.equals, area.equals", criteria -> {
+                criteria.alunoId().setEquals(1L);
+                criteria.area().setEquals(AreaDoEnem.MATEMATICA);
+            }),
+            meta("area.equals, valor.greaterThanOrEqual", criteria -> {
+                criteria.area().setEquals(AreaDoEnem.NATUREZA);
+                criteria.valor().setGreaterThanOrEqual(700);
+            })
+        );
+    }
+
+    private static Arguments aluno(String filters, Consumer<AlunoCriteria> configurer) {
+        AlunoCriteria criteria = new AlunoCriteria();
+        configurer.accept(criteria);
+        return Arguments.of(filters, criteria);
+    }
+
+    private static Arguments meta(String filters, Consumer<MetaCriteria> configurer) {
+        MetaCriteria criteria = new MetaCriteria();
+        configurer.accept(criteria);
+        return Arguments.of(filters, criteria);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> explain(String sql) {
+        assertThat(sql).isNotNull();
+        return em.createNativeQuery("explain " + sql).getResultList();
+    }
+
+    /**
+     * Captures the first statement run by Hibernate since the last {@link #reset()}.
+     */
+    public static class FirstStatement implements StatementInspector {
+
+        private static final ThreadLocal<String> SQL = new ThreadLocal<>();
+
+        static void reset() {
+            SQL.remove();
+        }
+
+        static String get() {
+            return SQL.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (SQL.get() == null) {
+                SQL.set(sql);
+            }
+            return sql;
+        }
+    }
+}
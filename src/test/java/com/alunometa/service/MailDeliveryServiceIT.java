@@ -0,0 +1,159 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.OutboundMail;
+import com.alunometa.repository.OutboundMailRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link MailDeliveryService}, against an SMTP server.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.mail.port=3025", "application.mail.batch-size=2", "application.mail.rate-per-second=3", "application.mail.max-attempts=2",
+    }
+)
+class MailDeliveryServiceIT {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailDeliveryService mailDeliveryService;
+
+    @Autowired
+    private OutboundMailRepository outboundMailRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Instant now = Instant.now();
+
+    @BeforeEach
+    public void setup() {
+        outboundMailRepository.deleteAll();
+        // A full rate limit, not refilled until the clock is moved
+        mailDeliveryService.setClock(Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        mailDeliveryService.setClock(Clock.systemUTC());
+    }
+
+    @Test
+    void testDeliverQueuedMails() throws Exception {
+        double sent = deliveries("sent");
+        queueMails(3);
+
+        mailDeliveryService.deliverQueuedMails();
+
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(3);
+        assertThat(messages[0].getSubject()).isEqualTo("testSubject 0");
+        assertThat(messages[0].getAllRecipients()[0]).hasToString("john.doe0@example.com");
+        assertThat(outboundMailRepository.count()).isZero();
+        assertThat(deliveries("sent")).isEqualTo(sent + 3);
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testDeliverAtMostRatePerSecondMails() {
+        queueMails(5);
+
+        mailDeliveryService.deliverQueuedMails();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(outboundMailRepository.count()).isEqualTo(2);
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isEqualTo(2);
+
+        // Within the same second
+        mailDeliveryService.deliverQueuedMails();
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+
+        // With a full rate limit again
+        mailDeliveryService.setClock(Clock.fixed(now.plusSeconds(1), ZoneOffset.UTC));
+        mailDeliveryService.deliverQueuedMails();
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(outboundMailRepository.count()).isZero();
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testRetryWhenServerIsDown() {
+        double retried = deliveries("retried");
+        double dropped = deliveries("dropped");
+        queueMails(1);
+        greenMail.stop();
+
+        mailDeliveryService.deliverQueuedMails();
+
+        List<OutboundMail> mails = outboundMailRepository.findAll();
+        assertThat(mails).hasSize(1);
+        OutboundMail mail = mails.get(0);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getLastError()).isNotBlank();
+        assertThat(mail.getNextAttemptDate()).isAfter(Instant.now());
+        assertThat(deliveries("retried")).isEqualTo(retried + 1);
+
+        // Not due yet
+        mailDeliveryService.deliverQueuedMails();
+        assertThat(outboundMailRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+
+        // Dropped after the maximum number of attempts
+        mail.setNextAttemptDate(Instant.now());
+        outboundMailRepository.save(mail);
+        mailDeliveryService.deliverQueuedMails();
+        assertThat(outboundMailRepository.count()).isZero();
+        assertThat(deliveries("dropped")).isEqualTo(dropped + 1);
+    }
+
+    @Test
+    void testDeliverAfterServerIsBack() {
+        queueMails(1);
+        greenMail.stop();
+        mailDeliveryService.deliverQueuedMails();
+        greenMail.start();
+
+        OutboundMail mail = outboundMailRepository.findAll().get(0);
+        mail.setNextAttemptDate(Instant.now());
+        outboundMailRepository.save(mail);
+        mailDeliveryService.deliverQueuedMails();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(outboundMailRepository.count()).isZero();
+    }
+
+    private void queueMails(int count) {
+        for (int i = 0; i < count; i++) {
+            mailService.sendEmail("john.doe" + i + "@example.com", "testSubject " + i, "testContent", false, false);
+        }
+    }
+
+    private double deliveries(String result) {
+        return meterRegistry
+            .get(MailDeliveryService.DELIVERIES_METER_NAME)
+            .tag(MailDeliveryService.RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+}
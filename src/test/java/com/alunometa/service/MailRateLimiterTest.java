@@ -0,0 +1,60 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailRateLimiterTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private Clock clock;
+
+    private MailRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        rateLimiter = new MailRateLimiter(10, clock);
+    }
+
+    @Test
+    void testOneSecondOfPermitsAtStart() {
+        assertThat(rateLimiter.acquire(4)).isEqualTo(4);
+        assertThat(rateLimiter.acquire(50)).isEqualTo(6);
+        assertThat(rateLimiter.acquire(50)).isZero();
+    }
+
+    @Test
+    void testPermitsRefilledFromElapsedTime() {
+        rateLimiter.acquire(50);
+
+        when(clock.instant()).thenReturn(NOW.plusMillis(250));
+        assertThat(rateLimiter.acquire(50)).isEqualTo(2);
+
+        // The half permit left is kept
+        when(clock.instant()).thenReturn(NOW.plusMillis(300));
+        assertThat(rateLimiter.acquire(50)).isEqualTo(1);
+    }
+
+    @Test
+    void testPermitsCappedToOneSecond() {
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+
+        assertThat(rateLimiter.acquire(50)).isEqualTo(10);
+    }
+
+    @Test
+    void testReleasedPermitsAreReused() {
+        rateLimiter.acquire(50);
+        rateLimiter.release(3);
+
+        assertThat(rateLimiter.acquire(50)).isEqualTo(3);
+    }
+}
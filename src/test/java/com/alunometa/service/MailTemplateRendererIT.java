@@ -0,0 +1,67 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.config.Constants;
+import com.alunometa.domain.User;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail", "mail/testEmail" })
+    void testRenderLikeTheTemplateEngine(String templateName) {
+        User john = createUser("john", "key1");
+        User jane = createUser("jane&<\"'>", "key2&key3");
+
+        // The second user is rendered from the cached template
+        assertThat(mailTemplateRenderer.render(templateName, john)).isEqualTo(process(templateName, john));
+        assertThat(mailTemplateRenderer.render(templateName, jane)).isEqualTo(process(templateName, jane));
+    }
+
+    @Test
+    void testRenderUserMissingAVariable() {
+        mailTemplateRenderer.render("mail/passwordResetEmail", createUser("john", "key1"));
+        User jane = createUser("jane", null);
+
+        assertThat(mailTemplateRenderer.render("mail/passwordResetEmail", jane)).isEqualTo(process("mail/passwordResetEmail", jane));
+    }
+
+    private static User createUser(String login, String key) {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setActivationKey(key);
+        user.setResetKey(key);
+        return user;
+    }
+
+    private String process(String templateName, User user) {
+        Context context = new Context(Locale.forLanguageTag(user.getLangKey()));
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+}
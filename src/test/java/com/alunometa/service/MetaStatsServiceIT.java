@@ -0,0 +1,59 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.repository.MetaRepository;
+import com.alunometa.service.dto.MetaStatsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link MetaStatsService}, with a replica pool on the test database.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.datasource.replica.jdbc-url=${spring.datasource.url}",
+        "spring.datasource.replica.username=${spring.datasource.username}",
+        "spring.datasource.replica.password=${spring.datasource.password}",
+        "spring.datasource.replica.pool-name=Replica",
+        "spring.datasource.replica.auto-commit=false",
+        "spring.datasource.replica.maximum-pool-size=1",
+        "spring.datasource.replica.connection-init-sql=set application_name = 'replica'",
+        "application.datasource.read-your-writes-window=1m",
+    }
+)
+class MetaStatsServiceIT {
+
+    @Autowired
+    private MetaStatsService metaStatsService;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void assertThatTheReloadReadsThePrimary() {
+        long replicaAcquisitions = replicaAcquisitions();
+
+        metaStatsService.getStats(null);
+        metaStatsService.refresh();
+
+        assertThat(replicaAcquisitions()).isEqualTo(replicaAcquisitions);
+        assertThat(metaStatsService.getStats(null).stream().mapToLong(MetaStatsDTO::getCount).sum()).isEqualTo(
+            metaRepository.count()
+        );
+    }
+
+    private long replicaAcquisitions() {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "Replica").timer();
+        assertThat(acquire).isNotNull();
+        return acquire.count();
+    }
+}
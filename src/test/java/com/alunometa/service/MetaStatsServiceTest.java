@@ -0,0 +1,51 @@
+package com.alunometa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.alunometa.domain.enumeration.AreaDoEnem;
+import com.alunometa.service.dto.MetaStatsDTO;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.Test;
+
+class MetaStatsServiceTest {
+
+    @Test
+    void computeStatsOfNoMeta() {
+        MetaStatsDTO stats = MetaStatsService.computeStats(AreaDoEnem.HUMANAS, new AtomicLongArray(MetaStatsService.MAX_VALOR + 1));
+
+        assertThat(stats.getArea()).isEqualTo(AreaDoEnem.HUMANAS);
+        assertThat(stats.getCount()).isZero();
+        assertThat(stats.getMin()).isNull();
+        assertThat(stats.getAverage()).isNull();
+        assertThat(stats.getPercentiles()).isEmpty();
+        assertThat(stats.getHistogram()).hasSize(10).allMatch(bucket -> bucket.getCount() == 0);
+    }
+
+    @Test
+    void computeStatsFromValorCounts() {
+        AtomicLongArray counts = new AtomicLongArray(MetaStatsService.MAX_VALOR + 1);
+        counts.set(0, 1);
+        counts.set(99, 1);
+        counts.set(100, 1);
+        counts.set(600, 6);
+        counts.set(1000, 1);
+
+        MetaStatsDTO stats = MetaStatsService.computeStats(AreaDoEnem.MATEMATICA, counts);
+
+        assertThat(stats.getCount()).isEqualTo(10);
+        assertThat(stats.getMin()).isZero();
+        assertThat(stats.getMax()).isEqualTo(1000);
+        assertThat(stats.getAverage()).isEqualTo(479.9);
+        assertThat(stats.getPercentiles()).containsExactly(
+            entry("p25", 100),
+            entry("p50", 600),
+            entry("p75", 600),
+            entry("p90", 600)
+        );
+        assertThat(stats.getHistogram())
+            .extracting(MetaStatsDTO.BucketDTO::getCount)
+            .containsExactly(2L, 1L, 0L, 0L, 0L, 0L, 6L, 0L, 0L, 1L);
+        assertThat(stats.getHistogram().get(9).getTo()).isEqualTo(1000);
+    }
+}
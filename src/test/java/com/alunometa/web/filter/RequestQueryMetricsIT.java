@@ -0,0 +1,93 @@
+package com.alunometa.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.alunometa.IntegrationTest;
+import com.alunometa.domain.Aluno;
+import com.alunometa.management.RequestQueryMetrics;
+import com.alunometa.repository.AlunoRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for {@link RequestQueryMetricsInterceptor} and {@link ServerTimingResponseBodyAdvice}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(properties = "application.instrumentation.server-timing=true")
+class RequestQueryMetricsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Aluno aluno;
+
+    @BeforeEach
+    public void init() {
+        aluno = alunoRepository.saveAndFlush(
+            new Aluno().nome("AAAAAAAAAA").email("AAAAAAAAAA").dataNascimento(LocalDate.ofEpochDay(0L))
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        alunoRepository.deleteById(aluno.getId());
+    }
+
+    @Test
+    void assertThatTheStatementsOfARequestAreRecordedByEndpoint() throws Exception {
+        mockMvc
+            .perform(get("/api/alunos?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ServerTimingResponseBodyAdvice.SERVER_TIMING_HEADER, containsString("statements")));
+
+        DistributionSummary statements = meterRegistry
+            .get(RequestQueryMetrics.STATEMENTS_METER_NAME)
+            .tag(RequestQueryMetrics.METHOD_DIMENSION, "GET")
+            .tag(RequestQueryMetrics.URI_DIMENSION, "/api/alunos")
+            .summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+        assertThat(
+            meterRegistry
+                .get(RequestQueryMetrics.JDBC_METER_NAME)
+                .tag(RequestQueryMetrics.METHOD_DIMENSION, "GET")
+                .tag(RequestQueryMetrics.URI_DIMENSION, "/api/alunos")
+                .timer()
+                .totalTime(TimeUnit.NANOSECONDS)
+        ).isPositive();
+    }
+
+    @Test
+    void assertThatOtherResourcesAreNotInstrumented() throws Exception {
+        mockMvc.perform(get("/api/authorities")).andExpect(header().doesNotExist(ServerTimingResponseBodyAdvice.SERVER_TIMING_HEADER));
+
+        assertThat(
+            meterRegistry
+                .find(RequestQueryMetrics.STATEMENTS_METER_NAME)
+                .tag(RequestQueryMetrics.URI_DIMENSION, "/api/authorities")
+                .summary()
+        ).isNull();
+    }
+}
@@ -3,17 +3,22 @@ package com.alunometa.web.rest;
 import static com.alunometa.domain.AlunoAsserts.*;
 import static com.alunometa.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.alunometa.IntegrationTest;
 import com.alunometa.domain.Aluno;
+import com.alunometa.domain.Meta;
 import com.alunometa.repository.AlunoRepository;
+import com.alunometa.service.AlunoSummaryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -21,6 +26,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -59,6 +65,9 @@ class AlunoResourceIT {
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @Autowired
+    private AlunoSummaryService alunoSummaryService;
+
     @Autowired
     private EntityManager em;
 
@@ -97,7 +106,7 @@ class AlunoResourceIT {
     @AfterEach
     public void cleanup() {
         if (insertedAluno != null) {
-            alunoRepository.delete(insertedAluno);
+            alunoRepository.deleteById(insertedAluno.getId());
             insertedAluno = null;
         }
     }
@@ -124,6 +133,64 @@ class AlunoResourceIT {
         insertedAluno = returnedAluno;
     }
 
+    @Test
+    @Transactional
+    void importAlunos() throws Exception {
+        long databaseSizeBeforeImport = getRepositoryCount();
+        Aluno alunoWithId = createEntity().id(1L);
+        Aluno invalidAluno = createEntity().nome("A");
+
+        // Import the alunos, the invalid ones being reported
+        restAlunoMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/import")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(aluno, alunoWithId, invalidAluno)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(3))
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.errors.[*].row").value(contains(2, 3)))
+            .andExpect(jsonPath("$.errors.[1].message").value("nome: size must be between 3 and 100"));
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeImport);
+    }
+
+    @Test
+    @Transactional
+    void importAlunosFromCsv() throws Exception {
+        long databaseSizeBeforeImport = getRepositoryCount();
+        String csv =
+            "nome,email,data_nascimento,telefone\n" +
+            "\"Silva, Ana\",ana@localhost,2008-05-01,\n" +
+            "Bruno,bruno@localhost,01/05/2008,123\n";
+
+        // Import the alunos, the invalid ones being reported
+        restAlunoMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(2))
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.errors.[0].row").value(2))
+            .andExpect(jsonPath("$.errors.[0].message").value("data_nascimento: invalid value '01/05/2008'"));
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeImport);
+        assertThat(alunoRepository.findAll()).anyMatch(imported -> "Silva, Ana".equals(imported.getNome()));
+    }
+
+    @Test
+    @Transactional
+    void importAlunosWithoutArrayShouldFail() throws Exception {
+        restAlunoMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(aluno)))
+            .andExpect(status().isBadRequest());
+
+        restAlunoMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content("nome,email\n"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createAlunoWithExistingId() throws Exception {
@@ -207,6 +274,199 @@ class AlunoResourceIT {
             .andExpect(jsonPath("$.[*].telefone").value(hasItem(DEFAULT_TELEFONE)));
     }
 
+    @Test
+    @Transactional
+    void getAllAlunosWithMetas() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        Meta meta = MetaResourceIT.createEntity().aluno(aluno);
+        em.persist(meta);
+        em.flush();
+        em.clear();
+
+        // Get all the alunoList with their metas
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "?include=metas&id.equals=" + aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(aluno.getId().intValue())))
+            .andExpect(jsonPath("$.[0].metas.[*].id").value(contains(meta.getId().intValue())));
+
+        // Get the same window of the keyset pagination
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&include=metas&id.equals=" + aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].metas.[*].id").value(contains(meta.getId().intValue())));
+
+        restAlunoMockMvc.perform(get(ENTITY_API_URL + "?include=alunos")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAlunosNotModified() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        String url = ENTITY_API_URL + "?include=metas&id.equals=" + aluno.getId();
+
+        // Get the page with its entity tag
+        String eTag = restAlunoMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        restAlunoMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Add a meta to the aluno
+        em.persist(MetaResourceIT.createEntity().aluno(aluno));
+        em.flush();
+        em.clear();
+
+        restAlunoMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].metas.[*].id").value(hasSize(1)));
+    }
+
+    @Test
+    @Transactional
+    void getAlunoSummary() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        Meta meta = MetaResourceIT.createEntity().aluno(aluno);
+        em.persist(meta);
+        alunoSummaryService.refresh(aluno);
+        em.clear();
+
+        // Get the summary of the aluno
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/summary", aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.alunoId").value(aluno.getId().intValue()))
+            .andExpect(jsonPath("$.nome").value(DEFAULT_NOME))
+            .andExpect(jsonPath("$.email").value(DEFAULT_EMAIL))
+            .andExpect(jsonPath("$.dataNascimento").value(DEFAULT_DATA_NASCIMENTO.toString()))
+            .andExpect(jsonPath("$.telefone").value(DEFAULT_TELEFONE))
+            .andExpect(jsonPath("$.linguagens").value(meta.getValor()))
+            .andExpect(jsonPath("$.humanas").isEmpty())
+            .andExpect(jsonPath("$.metaCount").value(1))
+            .andExpect(jsonPath("$.lastModifiedDate").isNotEmpty());
+
+        // Get all the summaries
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries?sort=alunoId,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].alunoId").value(hasItem(aluno.getId().intValue())))
+            .andExpect(jsonPath("$.[*].nome").value(hasItem(DEFAULT_NOME)));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingAlunoSummary() throws Exception {
+        // Get the summary of an aluno which has none
+        restAlunoMockMvc.perform(get(ENTITY_API_URL_ID + "/summary", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAllAlunosWithKeysetPagination() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        Aluno updatedAluno = alunoRepository.saveAndFlush(createUpdatedEntity());
+        String idFilter = "id.in=" + aluno.getId() + "," + updatedAluno.getId();
+
+        // Get the first window, which links to the next one
+        String link = restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=1&sort=nome,asc&" + idFilter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(aluno.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        assertThat(link).isNotNull();
+
+        // Get the last window, which has no next link
+        restAlunoMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(updatedAluno.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getAllAlunosWithKeysetPaginationOnNullableSortShouldFail() throws Exception {
+        restAlunoMockMvc.perform(get(ENTITY_API_URL + "?after=&sort=telefone,asc")).andExpect(status().isBadRequest());
+
+        restAlunoMockMvc.perform(get(ENTITY_API_URL + "?after=invalid&sort=id,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportAlunosAsNdjson() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        Aluno alunoWithoutMeta = alunoRepository.saveAndFlush(createUpdatedEntity());
+        Meta meta = MetaResourceIT.createEntity().aluno(aluno);
+        em.persist(meta);
+        em.flush();
+
+        // Export the alunos, one per line
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "/export?id.in=" + aluno.getId() + "," + alunoWithoutMeta.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(
+                content()
+                    .string(
+                        "{\"id\":" +
+                        aluno.getId() +
+                        ",\"nome\":\"AAAAAAAAAA\",\"email\":\"AAAAAAAAAA\",\"dataNascimento\":\"1970-01-01\",\"telefone\":\"AAAAAAAAAA\"," +
+                        "\"metas\":[{\"id\":" +
+                        meta.getId() +
+                        ",\"valor\":0,\"area\":\"LINGUAGENS\",\"descricao\":\"AAAAAAAAAA\"}]}\n" +
+                        "{\"id\":" +
+                        alunoWithoutMeta.getId() +
+                        ",\"nome\":\"BBBBBBBBBB\",\"email\":\"BBBBBBBBBB\",\"dataNascimento\":\"" +
+                        UPDATED_DATA_NASCIMENTO +
+                        "\",\"telefone\":\"BBBBBBBBBB\",\"metas\":[]}\n"
+                    )
+            );
+    }
+
+    @Test
+    @Transactional
+    void exportAlunosAsCsv() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno.nome("Silva, Ana"));
+        Meta meta = MetaResourceIT.createEntity().aluno(aluno);
+        em.persist(meta);
+        em.flush();
+
+        // Export the alunos, one line per meta
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL + "/export?format=csv&id.equals=" + aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(
+                content()
+                    .string(
+                        "aluno_id,nome,email,data_nascimento,telefone,meta_id,valor,area,descricao\n" +
+                        aluno.getId() +
+                        ",\"Silva, Ana\",AAAAAAAAAA,1970-01-01,AAAAAAAAAA," +
+                        meta.getId() +
+                        ",0,LINGUAGENS,AAAAAAAAAA\n"
+                    )
+            );
+    }
+
     @Test
     @Transactional
     void getAluno() throws Exception {
@@ -225,6 +485,37 @@ class AlunoResourceIT {
             .andExpect(jsonPath("$.telefone").value(DEFAULT_TELEFONE));
     }
 
+    @Test
+    @Transactional
+    void getAlunoNotModified() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+
+        // Get the aluno with its entity tag
+        String eTag = restAlunoMockMvc
+            .perform(get(ENTITY_API_URL_ID, aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + aluno.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL_ID, aluno.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the aluno
+        aluno.setNome(UPDATED_NOME);
+        alunoRepository.saveAndFlush(aluno);
+
+        restAlunoMockMvc
+            .perform(get(ENTITY_API_URL_ID, aluno.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + aluno.getVersion() + "\""))
+            .andExpect(jsonPath("$.nome").value(UPDATED_NOME));
+    }
+
     @Test
     @Transactional
     void getAlunosByIdFiltering() throws Exception {
@@ -552,6 +843,29 @@ class AlunoResourceIT {
         assertPersistedAlunoToMatchAllProperties(updatedAluno);
     }
 
+    @Test
+    @Transactional
+    void putAlunoWithStaleVersionShouldConflict() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+
+        // Update the aluno from a stale version
+        Aluno updatedAluno = alunoRepository.findById(aluno.getId()).orElseThrow();
+        em.detach(updatedAluno);
+        updatedAluno.nome(UPDATED_NOME).version(updatedAluno.getVersion() + 1);
+
+        restAlunoMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedAluno.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(updatedAluno))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Aluno in the database
+        assertThat(getPersistedAluno(aluno).getNome()).isEqualTo(DEFAULT_NOME);
+    }
+
     @Test
     @Transactional
     void putNonExistingAluno() throws Exception {
@@ -629,6 +943,68 @@ class AlunoResourceIT {
         assertAlunoUpdatableFieldsEquals(createUpdateProxyForBean(partialUpdatedAluno, aluno), getPersistedAluno(aluno));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateAlunoWithIfMatch() throws Exception {
+        // Initialize the database
+        insertedAluno = alunoRepository.saveAndFlush(aluno);
+        long version = aluno.getVersion();
+
+        // Update the nome only
+        Aluno partialUpdatedAluno = new Aluno();
+        partialUpdatedAluno.setId(aluno.getId());
+        partialUpdatedAluno.nome(UPDATED_NOME);
+
+        // A stale version conflicts
+        restAlunoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, aluno.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedAluno))
+            )
+            .andExpect(status().isConflict());
+        assertThat(getPersistedAluno(aluno).getNome()).isEqualTo(DEFAULT_NOME);
+
+        // A weak entity tag never matches
+        restAlunoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, aluno.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"" + version + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedAluno))
+            )
+            .andExpect(status().isConflict());
+
+        // A header which is not a list of entity tags is invalid
+        restAlunoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, aluno.getId())
+                    .header(HttpHeaders.IF_MATCH, String.valueOf(version))
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedAluno))
+            )
+            .andExpect(status().isBadRequest());
+        assertThat(getPersistedAluno(aluno).getNome()).isEqualTo(DEFAULT_NOME);
+
+        // The current version, listed with others, is updated and incremented, keeping the other fields
+        restAlunoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, aluno.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"" + version + "\", \"" + (version + 1) + "\", \"" + version + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedAluno))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+            .andExpect(jsonPath("$.nome").value(UPDATED_NOME))
+            .andExpect(jsonPath("$.email").value(DEFAULT_EMAIL));
+
+        Aluno persistedAluno = getPersistedAluno(aluno);
+        assertThat(persistedAluno.getNome()).isEqualTo(UPDATED_NOME);
+        assertThat(persistedAluno.getVersion()).isEqualTo(version + 1);
+    }
+
     @Test
     @Transactional
     void fullUpdateAlunoWithPatch() throws Exception {
@@ -3,6 +3,7 @@ package com.alunometa.web.rest;
 import static com.alunometa.domain.MetaAsserts.*;
 import static com.alunometa.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -109,7 +111,7 @@ class MetaResourceIT {
     @AfterEach
     public void cleanup() {
         if (insertedMeta != null) {
-            metaRepository.delete(insertedMeta);
+            metaRepository.deleteById(insertedMeta.getId());
             insertedMeta = null;
         }
     }
@@ -136,6 +138,78 @@ class MetaResourceIT {
         insertedMeta = returnedMeta;
     }
 
+    @Test
+    @Transactional
+    void importMetas() throws Exception {
+        Aluno aluno = AlunoResourceIT.createEntity();
+        em.persist(aluno);
+        em.flush();
+        long databaseSizeBeforeImport = getRepositoryCount();
+        String csv =
+            "valor,area,descricao,aluno_id\n" +
+            "700,MATEMATICA,,\n" +
+            "800,LINGUAGENS,\"Redação, com \"\"tema\"\"\"," +
+            aluno.getId() +
+            "\n" +
+            "900,LINGUAGENS,,0\n" +
+            "1001,MATEMATICA,,\n";
+
+        // Import the metas, the invalid ones being reported
+        restMetaMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(4))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.errors.[*].row").value(contains(4, 3)))
+            .andExpect(jsonPath("$.errors.[1].message").value("aluno: no aluno with the ID 0"));
+
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeImport + 2);
+        assertThat(metaRepository.findAll()).anyMatch(
+            imported -> "Redação, com \"tema\"".equals(imported.getDescricao()) && aluno.getId().equals(imported.getAluno().getId())
+        );
+    }
+
+    @Test
+    @Transactional
+    void getMetaStats() throws Exception {
+        // Get the statistics of all the metas, from the in-memory summary
+        restMetaMockMvc
+            .perform(get(ENTITY_API_URL + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].area").value(contains("LINGUAGENS", "HUMANAS", "NATUREZA", "MATEMATICA")))
+            .andExpect(jsonPath("$.[0].histogram.[*].from").value(contains(0, 100, 200, 300, 400, 500, 600, 700, 800, 900)))
+            .andExpect(jsonPath("$.[0].histogram.[9].to").value(1000));
+    }
+
+    @Test
+    @Transactional
+    void getMetaStatsByCriteria() throws Exception {
+        Aluno aluno = AlunoResourceIT.createEntity();
+        em.persist(aluno);
+        for (int valor : new int[] { 1000, 300, 100, 200 }) {
+            em.persist(createEntity().aluno(aluno).valor(valor).area(AreaDoEnem.MATEMATICA));
+        }
+        em.persist(createEntity().aluno(aluno).valor(900).area(AreaDoEnem.NATUREZA));
+        em.flush();
+
+        // Get the statistics of the metas of the aluno, aggregated by the database
+        restMetaMockMvc
+            .perform(get(ENTITY_API_URL + "/stats?alunoId.equals=" + aluno.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[3].area").value("MATEMATICA"))
+            .andExpect(jsonPath("$.[3].count").value(4))
+            .andExpect(jsonPath("$.[3].min").value(100))
+            .andExpect(jsonPath("$.[3].max").value(1000))
+            .andExpect(jsonPath("$.[3].average").value(400.0))
+            .andExpect(jsonPath("$.[3].percentiles.p50").value(200))
+            .andExpect(jsonPath("$.[3].percentiles.p90").value(1000))
+            .andExpect(jsonPath("$.[3].histogram.[*].count").value(contains(0, 1, 1, 1, 0, 0, 0, 0, 0, 1)))
+            .andExpect(jsonPath("$.[2].count").value(1))
+            .andExpect(jsonPath("$.[0].count").value(0))
+            .andExpect(jsonPath("$.[0].average").isEmpty());
+    }
+
     @Test
     @Transactional
     void createMetaWithExistingId() throws Exception {
@@ -219,6 +293,32 @@ class MetaResourceIT {
         verify(metaRepositoryMock, times(1)).findAll(any(Pageable.class));
     }
 
+    @Test
+    @Transactional
+    void getAllMetasWithKeysetPagination() throws Exception {
+        // Initialize the database
+        insertedMeta = metaRepository.saveAndFlush(meta);
+        Meta updatedMeta = metaRepository.saveAndFlush(createUpdatedEntity());
+        String idFilter = "id.in=" + meta.getId() + "," + updatedMeta.getId();
+
+        // Get the first window, areas being sorted by name
+        String link = restMetaMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=1&sort=area,asc&" + idFilter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(updatedMeta.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        assertThat(link).isNotNull();
+
+        // Get the last window, which has no next link
+        restMetaMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(meta.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
     @Test
     @Transactional
     void getMeta() throws Exception {
@@ -236,6 +336,39 @@ class MetaResourceIT {
             .andExpect(jsonPath("$.descricao").value(DEFAULT_DESCRICAO));
     }
 
+    @Test
+    @Transactional
+    void getMetaNotModified() throws Exception {
+        // Initialize the database
+        Aluno aluno = AlunoResourceIT.createEntity();
+        em.persist(aluno);
+        insertedMeta = metaRepository.saveAndFlush(meta.aluno(aluno));
+
+        // Get the meta with its entity tag, made of its version and the version of its aluno
+        String eTag = restMetaMockMvc
+            .perform(get(ENTITY_API_URL_ID, meta.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + meta.getVersion() + "-" + aluno.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restMetaMockMvc
+            .perform(get(ENTITY_API_URL_ID, meta.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the aluno, which is returned with the meta
+        aluno.setNome("BBBBBBBBBB");
+        em.flush();
+
+        restMetaMockMvc
+            .perform(get(ENTITY_API_URL_ID, meta.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + meta.getVersion() + "-" + aluno.getVersion() + "\""))
+            .andExpect(jsonPath("$.aluno.nome").value("BBBBBBBBBB"));
+    }
+
     @Test
     @Transactional
     void getMetasByIdFiltering() throws Exception {
@@ -579,6 +712,55 @@ class MetaResourceIT {
         assertMetaUpdatableFieldsEquals(createUpdateProxyForBean(partialUpdatedMeta, meta), getPersistedMeta(meta));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateMetaWithIfMatch() throws Exception {
+        // Initialize the database
+        Aluno aluno = AlunoResourceIT.createEntity();
+        em.persist(aluno);
+        insertedMeta = metaRepository.saveAndFlush(meta.aluno(aluno));
+
+        String eTag = restMetaMockMvc
+            .perform(get(ENTITY_API_URL_ID, meta.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // A change of the aluno does not conflict with an update of the meta
+        aluno.setNome("BBBBBBBBBB");
+        em.flush();
+
+        Meta partialUpdatedMeta = new Meta();
+        partialUpdatedMeta.setId(meta.getId());
+        partialUpdatedMeta.valor(UPDATED_VALOR);
+
+        restMetaMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, meta.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMeta))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.valor").value(UPDATED_VALOR))
+            .andExpect(jsonPath("$.area").value(DEFAULT_AREA.toString()));
+
+        // The meta changed since the entity tag was read
+        restMetaMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, meta.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMeta.descricao(UPDATED_DESCRICAO)))
+            )
+            .andExpect(status().isConflict());
+
+        Meta persistedMeta = getPersistedMeta(meta);
+        assertThat(persistedMeta.getValor()).isEqualTo(UPDATED_VALOR);
+        assertThat(persistedMeta.getDescricao()).isEqualTo(DEFAULT_DESCRICAO);
+    }
+
     @Test
     @Transactional
     void fullUpdateMetaWithPatch() throws Exception {